@@ -0,0 +1,28 @@
+package com.et.server.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 아두이노 응답(JSON) 파싱: 매번 새 ObjectMapper 생성 vs 공유 ObjectMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ArduinoReplyParsingBenchmark {
+
+    private final ObjectMapper sharedMapper = new ObjectMapper();
+
+    @Benchmark
+    public int freshObjectMapper() throws Exception {
+        JsonNode reply = new ObjectMapper().readTree(StubArduinoServer.REPLY);
+        return reply.path("status").asInt();
+    }
+
+    @Benchmark
+    public int sharedObjectMapper() throws Exception {
+        JsonNode reply = sharedMapper.readTree(StubArduinoServer.REPLY);
+        return reply.path("status").asInt();
+    }
+}
@@ -0,0 +1,121 @@
+package com.et.server.controller;
+
+import com.et.server.ServerApplication;
+import com.et.server.entity.Device;
+import com.et.server.entity.Feature;
+import com.et.server.entity.Home;
+import com.et.server.entity.Member;
+import com.et.server.service.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 제스처 디스패치 경로 벤치마크 (H2 내장 DB + 스텁 아두이노 서버)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GestureDispatchBenchmark {
+
+    private StubArduinoServer arduino;
+    private ConfigurableApplicationContext context;
+
+    private EyeTrackingController controller;
+    private FeatureService featureService;
+    private TransactionTemplate transactionTemplate;
+
+    private String sessionId;
+    private Long deviceId;
+    private FeatureDispatchTable.Entry entry;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        arduino = new StubArduinoServer();
+        context = new SpringApplicationBuilder(ServerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                        "app.arduino-url=" + arduino.url(),
+                        "app.ml-server-url=http://127.0.0.1:9",
+                        "app.upload-dir=" + Files.createTempDirectory("et-bench"),
+                        "app.gesture-debounce.default-window-ms=0",
+                        "app.gesture-debounce.window-ms.Blink=0")
+                .run();
+
+        controller = context.getBean(EyeTrackingController.class);
+        featureService = context.getBean(FeatureService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        // 테스트 데이터: 홈 1개, 사용자 1명, 기기 1개, 기능 1개 (Blink)
+        Home home = new Home();
+        home.setName("bench");
+        home.setPassword("bench");
+        Long homeId = context.getBean(HomeService.class).signup(home).getId();
+
+        Member member = new Member();
+        member.setName("bench");
+        Long memberId = context.getBean(MemberService.class).addMember(homeId, member).getId();
+
+        Device device = new Device();
+        device.setName("TV");
+        deviceId = context.getBean(DeviceService.class).addDevice(homeId, device).getId();
+
+        Feature feature = new Feature();
+        feature.setName("전원");
+        feature.setIr("0x20DF10EF");
+        featureService.addFeature(deviceId, "Blink", feature);
+
+        sessionId = (String) controller.memberName(homeId, memberId, "bench").getBody().get("sessionId");
+        controller.getDevice(sessionId, "TV");
+        entry = featureService.findDispatchTable(deviceId).get("Blink");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        arduino.close();
+    }
+
+    // 전체 경로: 세션 조회 -> 디바운스 -> 디스패치 테이블 -> 아두이노 전송 -> 응답 생성
+    @Benchmark
+    public Map<String, Object> getGesture() {
+        return controller.getGesture(sessionId, "Blink", false).getBody();
+    }
+
+    // 디스패치 테이블 조회 (메모리 캐시)
+    @Benchmark
+    public FeatureDispatchTable.Entry dispatchTableLookup() {
+        return featureService.findDispatchTable(deviceId).get("Blink");
+    }
+
+    // 기존 방식: 기기의 모든 기능 조회 + 제스처 지연 로딩 + 이름 필터링
+    @Benchmark
+    public Feature findAllFeaturesAndFilter() {
+        return transactionTemplate.execute(status -> {
+            List<Feature> features = featureService.findAllFeatures(deviceId);
+            return features.stream()
+                    .filter(feature -> feature.getGesture() != null && "Blink".equals(feature.getGesture().getName()))
+                    .findFirst()
+                    .orElse(null);
+        });
+    }
+
+    @Benchmark
+    public void featureToMap(Blackhole blackhole) {
+        blackhole.consume(controller.featureToMap(entry));
+    }
+}
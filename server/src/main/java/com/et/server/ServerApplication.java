@@ -1,7 +1,10 @@
 package com.et.server;
 
 import com.et.server.service.GestureService;
+import com.et.server.service.IrCodeService;
+import com.et.server.service.ThumbnailService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -12,6 +15,15 @@ public class ServerApplication implements CommandLineRunner {
 	@Autowired
 	private GestureService gestureService;
 
+	@Autowired
+	private IrCodeService irCodeService;
+
+	@Autowired
+	private ThumbnailService thumbnailService;
+
+	@Value("${app.thumbnail.backfill-on-startup:false}")
+	private boolean thumbnailBackfill;	// 기존 사진의 썸네일을 한 번 생성할 때 true로 실행
+
 	public static void main(String[] args) {
 		SpringApplication.run(ServerApplication.class, args);
 	}
@@ -20,5 +32,9 @@ public class ServerApplication implements CommandLineRunner {
 	public void run(String... args) throws Exception {
 		gestureService.initializeFileStorageLocation();
 		gestureService.initializeGestures();
+		irCodeService.migrateLegacyCodes();
+		if (thumbnailBackfill) {
+			thumbnailService.backfill();
+		}
 	}
 }
@@ -0,0 +1,22 @@
+package com.et.server;
+
+import com.et.server.controller.EyeTrackingStreamHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final EyeTrackingStreamHandler eyeTrackingStreamHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // ML 서버의 기기/제스처 탐지 스트림
+        registry.addHandler(eyeTrackingStreamHandler, "/et/eyeTracking/stream");
+    }
+}
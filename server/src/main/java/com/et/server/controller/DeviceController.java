@@ -2,6 +2,9 @@ package com.et.server.controller;
 
 import com.et.server.entity.Device;
 import com.et.server.service.DeviceService;
+import com.et.server.service.MediaCache;
+import com.et.server.service.MediaService;
+import com.et.server.service.ThumbnailService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,12 +14,14 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +33,18 @@ public class DeviceController {
     @Autowired
     private DeviceService deviceService;
 
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private MediaCache mediaCache;
+
+    @Autowired
+    private KeysetPageWriter keysetPageWriter;
+
     @Value("${app.upload-dir}")
     private String UPLOAD_DIR;
 
@@ -74,7 +91,7 @@ public class DeviceController {
             if (photoFilename != null && !photoFilename.isEmpty()) {
                 File photoFile = new File(UPLOAD_DIR + "/device/" + photoFilename);
                 if (photoFile.exists()) {
-                    Resource resource = new org.springframework.core.io.FileSystemResource(photoFile);
+                    Resource resource = mediaCache.resource(photoFile.toPath());
                     HttpHeaders fileHeaders = new HttpHeaders();
                     fileHeaders.setContentDispositionFormData("photo", photoFile.getName());
                     fileHeaders.setContentType(MediaType.IMAGE_PNG);
@@ -90,6 +107,26 @@ public class DeviceController {
         return new ResponseEntity<>(responseData, headers, HttpStatus.OK);
     }
 
+    // 기기 목록 조회 (JSON, 사진은 URL로 제공)
+    // afterId: 이전 페이지의 nextCursor (없으면 처음부터), size: 페이지 크기
+    @GetMapping("/list")
+    public ResponseEntity<StreamingResponseBody> listDevices(@RequestParam Long homeId,
+                                                             @RequestParam(required = false) Long afterId,
+                                                             @RequestParam(required = false) Integer size) {
+        log.info("기기 목록 조회 요청: homeId={}, afterId={}", homeId, afterId);
+        int pageSize = keysetPageWriter.pageSize(size);
+        List<Device> devices = deviceService.findDevicesPage(homeId, afterId, pageSize + 1);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", "200");
+        fields.put("message", "전체 기기 조회 성공");
+        fields.put("homeId", homeId);
+        return keysetPageWriter.write(fields, devices, pageSize, Device::getId, (generator, device) -> {
+            generator.writeNumberField("deviceId", device.getId());
+            generator.writeStringField("name", device.getName());
+            generator.writeStringField("photoUrl", mediaService.photoUrl("device", device.getPhotoPath()));
+        });
+    }
+
     // 파일 저장 로직
     private String saveFile(MultipartFile file, Long homeId, String name) throws IOException {
         if (file.isEmpty()) {
@@ -120,6 +157,7 @@ public class DeviceController {
             counter++;
         }
         file.transferTo(dest);
+        thumbnailService.generateAsync("device", uniqueFileName);
         return uniqueFileName; // 파일명만 반환
     }
 
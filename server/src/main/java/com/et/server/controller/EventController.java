@@ -0,0 +1,27 @@
+package com.et.server.controller;
+
+import com.et.server.service.HomeEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@RestController
+@RequestMapping("/et/event")
+public class EventController {
+
+    @Autowired
+    private HomeEventService homeEventService;
+
+    // 홈 이벤트 스트림 (irLearned: 학습된 IR 값, irDispatch: IR 전송 결과)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam Long homeId) {
+        log.info("이벤트 스트림 요청: homeId={}", homeId);
+        return homeEventService.subscribe(homeId);
+    }
+}
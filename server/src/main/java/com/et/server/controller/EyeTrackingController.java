@@ -1,13 +1,21 @@
 package com.et.server.controller;
 
-import com.et.server.entity.Device;
 import com.et.server.entity.Feature;
 import com.et.server.entity.Member;
 import com.et.server.repository.MemberRepository;
-import com.et.server.repository.DeviceRepository;
+import com.et.server.service.ArduinoGateway;
+import com.et.server.service.DeviceService;
+import com.et.server.service.EyeTrackingSession;
+import com.et.server.service.EyeTrackingSessionRegistry;
+import com.et.server.service.FeatureDispatchTable;
+import com.et.server.service.GestureDebounceProperties;
+import com.et.server.service.GesturePipelineMetrics;
+import com.et.server.service.HomeEventService;
 import com.et.server.service.FeatureService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.et.server.service.IrCodeService;
+import com.et.server.service.IrCommand;
+import com.et.server.service.IrDispatchService;
+import com.et.server.service.IrStep;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,22 +40,35 @@ public class EyeTrackingController {
     private MemberRepository memberRepository;
 
     @Autowired
-    private DeviceRepository deviceRepository;
+    private DeviceService deviceService;
 
     @Autowired
     private FeatureService featureService;
 
+    @Autowired
+    private IrCodeService irCodeService;
+
     @Value("${app.ml-server-url}")
     private String ML_SERVER_URL;
 
-    @Value("${app.arduino-url}")
-    private String ARDUINO_URL;
+    @Autowired
+    private EyeTrackingSessionRegistry sessionRegistry;
+
+    @Autowired
+    private IrDispatchService irDispatchService;
 
-    private boolean cameraOn;
-    private String sendMemberName;
+    @Autowired
+    private ArduinoGateway arduinoGateway;
+
+    @Autowired
+    private GestureDebounceProperties debounceProperties;
+
+    @Autowired
+    private GesturePipelineMetrics gestureMetrics;
+
+    @Autowired
+    private HomeEventService homeEventService;
 
-    // 아이트래킹에 필요한 정보
-    private Long MLDeviceId;
 
     @PostMapping("/memberName")
     public ResponseEntity<Map<String, Object>> memberName(@RequestParam Long homeId,
@@ -71,24 +92,36 @@ public class EyeTrackingController {
             response.put("status", HttpStatus.BAD_REQUEST.value());
             response.put("message", "이름이 일치하지 않습니다.");
             return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        } else if (member.getHome() == null || !member.getHome().getId().equals(homeId)) {
+            log.warn("memberId {}가 homeId {}에 속하지 않음", memberId, homeId);
+            response.put("status", HttpStatus.BAD_REQUEST.value());
+            response.put("message", "해당 홈의 사용자가 아닙니다.");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
         }
 
         log.info("memberId {}와 이름이 일치: {}", memberId, memberName);
-        sendMemberName = memberName;
+        EyeTrackingSession session = sessionRegistry.open(homeId, memberId, memberName);
+        log.info("아이트래킹 세션 생성: sessionId={}, homeId={}, memberId={}", session.getId(), homeId, memberId);
         response.put("status", HttpStatus.OK.value());
         response.put("message", "수신 성공하였습니다.");
+        response.put("sessionId", session.getId());
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @PostMapping("/start")
-    public ResponseEntity<Map<String, Object>> eyeTrackingStart() {
-        log.info("아이트래킹 시작 요청");
+    public ResponseEntity<Map<String, Object>> eyeTrackingStart(@RequestParam String sessionId) {
+        log.info("아이트래킹 시작 요청: sessionId={}", sessionId);
+
+        EyeTrackingSession session = sessionRegistry.find(sessionId);
+        if (session == null) {
+            return sessionNotFound(sessionId);
+        }
 
         try {
-            cameraOn = true;
+            session.setCameraOn(true);
             String message = "아이트래킹을 시작합니다.";
 
-            sendRequestToMLServer();
+            sendRequestToMLServer(session);
 
             return createResponse(message, HttpStatus.OK);
         } catch (Exception e) {
@@ -98,30 +131,36 @@ public class EyeTrackingController {
     }
 
     @PostMapping("/getDevice")
-    public ResponseEntity<Map<String, Object>> getDevice(@RequestParam String deviceName) {
+    public ResponseEntity<Map<String, Object>> getDevice(@RequestParam String sessionId,
+                                                         @RequestParam String deviceName) {
         Map<String, Object> response = new HashMap<>();
 
-        // deviceName으로 디바이스 조회
-        Device device = deviceRepository.findByName(deviceName);
+        EyeTrackingSession session = sessionRegistry.find(sessionId);
+        if (session == null) {
+            return sessionNotFound(sessionId);
+        }
+
+        // 세션의 홈에서 deviceName으로 디바이스 조회 (캐시)
+        Long MLDeviceId = deviceService.findDeviceId(session.getHomeId(), deviceName);
 
-        if (device == null) {
-            log.warn("존재하지 않는 deviceName: {}", deviceName);
+        if (MLDeviceId == null) {
+            log.warn("존재하지 않는 deviceName: homeId={}, {}", session.getHomeId(), deviceName);
             response.put("status", HttpStatus.NOT_FOUND.value());
             response.put("message", "해당 이름의 디바이스가 존재하지 않습니다.");
             return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
         }
 
         // 디바이스 ID 설정 및 반환
-        MLDeviceId = device.getId();
+        session.setDeviceId(MLDeviceId);
         response.put("status", HttpStatus.OK.value());
         response.put("message", "디바이스 조회 성공");
-        response.put("deviceId", device.getId());
-        response.put("deviceName", device.getName());
+        response.put("deviceId", MLDeviceId);
+        response.put("deviceName", deviceName);
 
-        log.info("ML 객체 탐지 성공 - deviceId: {}, {}", device.getId(), deviceName);
+        log.info("ML 객체 탐지 성공 - deviceId: {}, {}", MLDeviceId, deviceName);
 
-        // MLDeviceId에 매핑된 모든 Feature 조회
-        List<Feature> features = featureService.findAllFeatures(MLDeviceId);
+        // MLDeviceId에 매핑된 모든 Feature 조회 (WebSocket 스트림에서도 사용하므로 제스처를 함께 조회)
+        List<Feature> features = featureService.findAllFeaturesWithGesture(MLDeviceId);
 
         if (features.isEmpty()) {
             log.info("기기에 매핑된 기능이 없습니다: deviceId={}", MLDeviceId);
@@ -141,100 +180,136 @@ public class EyeTrackingController {
     }
 
     @PostMapping("/getGesture")
-    public ResponseEntity<Map<String, Object>> getGesture(@RequestParam String gestureName) {
+    public ResponseEntity<Map<String, Object>> getGesture(@RequestParam String sessionId,
+                                                          @RequestParam String gestureName,
+                                                          @RequestParam(defaultValue = "false") boolean async) {
+        gestureMetrics.markHandlerStart();
+        GestureOutcome outcome = handleGesture(sessionId, gestureName, async);
+
+        // 지연 시간 태그: 매핑된 제스처만 사용 (임의의 제스처 이름으로 태그가 늘어나지 않도록)
+        gestureMetrics.markHandlerEnd(outcome.mapped() ? gestureName : null);
+        return outcome.response();
+    }
+
+    // 제스처 처리 결과: 응답과 지연 시간 태그에 쓸 매핑 여부
+    private record GestureOutcome(ResponseEntity<Map<String, Object>> response, boolean mapped) {
+    }
+
+    private GestureOutcome handleGesture(String sessionId, String gestureName, boolean async) {
         Map<String, Object> response = new HashMap<>();
 
+        EyeTrackingSession session = sessionRegistry.find(sessionId);
+        if (session == null) {
+            return new GestureOutcome(sessionNotFound(sessionId), false);
+        }
+
+        Long MLDeviceId = session.getDeviceId();
         if (MLDeviceId == null) {
             log.warn("MLDeviceId가 설정되지 않았습니다.");
             response.put("status", HttpStatus.BAD_REQUEST.value());
             response.put("message", "MLDeviceId가 설정되지 않았습니다. 먼저 getDevice를 호출하세요.");
-            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+            return new GestureOutcome(new ResponseEntity<>(response, HttpStatus.BAD_REQUEST), false);
         }
 
-        // MLDeviceId에 매핑된 모든 Feature 조회
-        List<Feature> features = featureService.findAllFeatures(MLDeviceId);
+        // 디바운스: 짧은 시간 안에 반복된 같은 제스처는 조회/전송 없이 무시
+        if (!session.acceptGesture(MLDeviceId, gestureName, System.currentTimeMillis(), debounceProperties.windowFor(gestureName))) {
+            log.info("중복 제스처 무시: deviceId={}, gestureName={}", MLDeviceId, gestureName);
+            response.put("status", HttpStatus.OK.value());
+            response.put("message", "중복 제스처로 무시되었습니다.");
+            response.put("debounced", true);
+            return new GestureOutcome(new ResponseEntity<>(response, HttpStatus.OK), false);
+        }
 
-        if (features.isEmpty()) {
+        // MLDeviceId의 제스처 -> IR 디스패치 테이블 조회 (메모리 캐시)
+        long lookupStart = System.nanoTime();
+        Map<String, FeatureDispatchTable.Entry> dispatchTable = featureService.findDispatchTable(MLDeviceId);
+        FeatureDispatchTable.Entry matchingFeature = dispatchTable.get(gestureName);
+        gestureMetrics.record(GesturePipelineMetrics.STAGE_LOOKUP,
+                matchingFeature != null ? gestureName : null, System.nanoTime() - lookupStart);
+
+        if (dispatchTable.isEmpty()) {
             log.info("기기에 매핑된 기능이 없습니다: deviceId={}", MLDeviceId);
             response.put("status", HttpStatus.NOT_FOUND.value());
             response.put("message", "해당 기기에 매핑된 기능이 없습니다.");
-            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+            return new GestureOutcome(new ResponseEntity<>(response, HttpStatus.NOT_FOUND), false);
         }
 
-        // 입력받은 gestureName과 일치하는 Feature 필터링
-        Feature matchingFeature = features.stream()
-                .filter(feature -> feature.getGesture() != null && gestureName.equals(feature.getGesture().getName()))
-                .findFirst()
-                .orElse(null);
-
+        // 입력받은 gestureName과 일치하는 Feature가 없는 경우
         if (matchingFeature == null) {
             log.info("일치하는 제스처가 없습니다: gestureName={}", gestureName);
             response.put("status", HttpStatus.NOT_FOUND.value());
             response.put("message", "해당 제스처 이름과 일치하는 기능이 없습니다.");
-            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+            return new GestureOutcome(new ResponseEntity<>(response, HttpStatus.NOT_FOUND), false);
+        }
+
+        // 아두이노 서버에 IR 값 전송 (매크로면 여러 단계)
+        List<IrStep> steps = matchingFeature.steps();
+        log.info("아두이노 서버로 전송 : {}, {}, steps={}", gestureName, matchingFeature.ir(), steps.size());
+
+        if (async || matchingFeature.isMacro()) {
+            // 비동기 전송: 명령 ID를 즉시 반환하고 결과는 /command로 조회
+            // 매크로는 단계 사이 대기가 있으므로 항상 비동기로 전송 (요청/WebSocket 스레드를 점유하지 않음)
+            IrCommand command = irDispatchService.dispatchAsync(session.getHomeId(), MLDeviceId, gestureName, steps);
+            response.put("status", HttpStatus.ACCEPTED.value());
+            response.put("message", "IR 전송 요청 접수");
+            response.put("commandId", command.getId());
+            response.put("feature", featureToMap(matchingFeature));
+            log.info("IR 비동기 전송 접수 - deviceId: {}, gestureName: {}, commandId: {}", MLDeviceId, gestureName, command.getId());
+            return new GestureOutcome(new ResponseEntity<>(response, HttpStatus.ACCEPTED), true);
         }
 
-        // 아두이노 서버에 IR 값 전송
-        String irValue = matchingFeature.getIr();
-        log.info("아두이노 서버로 전송 : {}, {}", gestureName, irValue);
+        String arduinoResponse = irDispatchService.send(gestureName, matchingFeature.ir());
+        publishDispatchResult(session.getHomeId(), MLDeviceId, gestureName, arduinoResponse, List.of(arduinoResponse));
 
-        String arduinoResponse = sendIrToArduino(irValue);
         if ("success".equals(arduinoResponse)) {
             // 성공 시 응답에 Feature 정보 추가
             response.put("status", HttpStatus.OK.value());
             response.put("message", "기능 조회 및 IR 전송 성공");
             response.put("feature", featureToMap(matchingFeature));
             log.info("기능 조회 및 IR 전송 성공 - deviceId: {}, gestureName: {}", MLDeviceId, gestureName);
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            return new GestureOutcome(new ResponseEntity<>(response, HttpStatus.OK), true);
+        } else if ("unavailable".equals(arduinoResponse)) {
+            // 서킷 브레이커 OPEN 또는 동시 호출 한도 초과 시 즉시 실패
+            log.warn("아두이노 서버 호출 차단 - deviceId: {}, gestureName: {}", MLDeviceId, gestureName);
+            response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.put("message", "아두이노 서버를 사용할 수 없습니다. 잠시 후 다시 시도하세요.");
+            return new GestureOutcome(new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE), true);
         } else {
             // 실패 시 제어 실패 메시지 응답
             log.error("아두이노 서버 제어 실패 - 응답: {}", arduinoResponse);
             response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
             response.put("message", "아두이노 서버 제어 실패");
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+            return new GestureOutcome(new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR), true);
         }
     }
 
-    // 아두이노 서버로 IR 값을 전송하고 응답을 받는 메서드
-    private String sendIrToArduino(String irValue) {
-        String arduinoUrl = ARDUINO_URL + "/sendIR";
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.TEXT_PLAIN);
-
-            HttpEntity<String> entity = new HttpEntity<>(irValue, headers);
-            log.info("아두이노 서버에 IR 값 요청: URL={}, IR 값={}", arduinoUrl, irValue); // 아두이노 서버 요청 전 로그
-
-            // 아두이노 서버에 POST 요청 전송
-            ResponseEntity<String> response = restTemplate.postForEntity(arduinoUrl, entity, String.class);
-
-            // 아두이노 서버 응답 처리
-            if (response.getStatusCode() == HttpStatus.OK) {
-                // 응답 본문을 JSON으로 파싱
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode responseBody = mapper.readTree(response.getBody());
-                int status = responseBody.path("status").asInt();
-                String message = responseBody.path("message").asText();
-
-                log.info("아두이노 서버 응답 성공: status={}, message={}", status, message); // 성공 응답 로그
-
-                // status가 200이면 성공으로 처리
-                return (status == 200) ? "success" : "fail";
-            } else {
-                log.error("아두이노 서버로부터 예상치 못한 응답 코드: {}", response.getStatusCode());
-                return "error";
-            }
-        } catch (Exception e) {
-            log.error("아두이노 서버로 IR 전송 중 오류 발생: {}", e.getMessage());
-            return "error";
-        }
+    // 동기 IR 전송 결과를 홈 이벤트 스트림으로 전송 (비동기 전송은 IrCommand 완료 이벤트로 전송)
+    private void publishDispatchResult(Long homeId, Long deviceId, String gestureName, String result, List<String> stepResults) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("deviceId", deviceId);
+        event.put("gestureName", gestureName);
+        event.put("result", result.toUpperCase());
+        event.put("stepResults", stepResults);
+        homeEventService.publish(homeId, HomeEventService.EVENT_IR_DISPATCH, event);
+    }
+
+    // 벤치마크(src/jmh)에서 사용하므로 package-private
+    Map<String, Object> featureToMap(FeatureDispatchTable.Entry entry) {
+        Map<String, Object> featureData = new HashMap<>();
+        featureData.put("featureId", entry.featureId());
+        featureData.put("name", entry.name());
+        featureData.put("ir", entry.ir());
+        featureData.put("gestureName", entry.gestureName());
+        featureData.put("description", entry.description());
+        featureData.put("macro", entry.isMacro());
+        return featureData;
     }
 
     private Map<String, Object> featureToMap(Feature feature) {
         Map<String, Object> featureData = new HashMap<>();
         featureData.put("featureId", feature.getId());
         featureData.put("name", feature.getName());
-        featureData.put("ir", feature.getIr());
+        featureData.put("ir", irCodeService.resolveIr(feature));
 
         if (feature.getGesture() != null) {
             featureData.put("gestureName", feature.getGesture().getName());
@@ -244,15 +319,51 @@ public class EyeTrackingController {
         return featureData;
     }
 
+    // 비동기 IR 전송 결과 조회
+    @GetMapping("/command")
+    public ResponseEntity<Map<String, Object>> findCommand(@RequestParam String commandId) {
+        IrCommand command = irDispatchService.findCommand(commandId);
+        if (command == null) {
+            log.warn("존재하지 않는 commandId: {}", commandId);
+            return createResponse("해당 ID의 명령이 존재하지 않습니다.", HttpStatus.NOT_FOUND);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.OK.value());
+        response.put("message", "명령 조회 성공");
+        response.put("commandId", command.getId());
+        response.put("deviceId", command.getDeviceId());
+        response.put("gestureName", command.getGestureName());
+        response.put("result", command.getStatus().name());
+        response.put("stepResults", command.getStepResults());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    // 아두이노 서버 게이트웨이(서킷 브레이커) 상태 조회
+    @GetMapping("/arduinoStatus")
+    public ResponseEntity<Map<String, Object>> arduinoStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.OK.value());
+        response.put("message", "아두이노 서버 상태 조회 성공");
+        response.put("gateway", arduinoGateway.status());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PostMapping("/end")
-    public ResponseEntity<Map<String, Object>> eyeTrackingEnd() {
-        log.info("아이트래킹 종료 요청");
+    public ResponseEntity<Map<String, Object>> eyeTrackingEnd(@RequestParam String sessionId) {
+        log.info("아이트래킹 종료 요청: sessionId={}", sessionId);
+
+        EyeTrackingSession session = sessionRegistry.find(sessionId);
+        if (session == null) {
+            return sessionNotFound(sessionId);
+        }
 
         try {
-            cameraOn = false;
+            session.setCameraOn(false);
             String message = "아이트래킹을 종료합니다.";
 
-            sendRequestToMLServer();
+            sendRequestToMLServer(session);
+            sessionRegistry.close(sessionId);
 
             return createResponse(message, HttpStatus.OK);
         } catch (Exception e) {
@@ -261,11 +372,12 @@ public class EyeTrackingController {
         }
     }
 
-    private void sendRequestToMLServer() {
+    private void sendRequestToMLServer(EyeTrackingSession session) {
         try {
             String url = UriComponentsBuilder.fromHttpUrl(ML_SERVER_URL + "/On_Off/")
-                    .queryParam("name", sendMemberName)
-                    .queryParam("is_camera_on", cameraOn)
+                    .queryParam("name", session.getMemberName())
+                    .queryParam("is_camera_on", session.isCameraOn())
+                    .queryParam("session_id", session.getId())
                     .encode()
                     .toUriString();
 
@@ -284,6 +396,11 @@ public class EyeTrackingController {
         }
     }
 
+    private ResponseEntity<Map<String, Object>> sessionNotFound(String sessionId) {
+        log.warn("존재하지 않는 sessionId: {}", sessionId);
+        return createResponse("아이트래킹 세션을 찾을 수 없습니다. 먼저 memberName을 호출하세요.", HttpStatus.NOT_FOUND);
+    }
+
     private ResponseEntity<Map<String, Object>> createResponse(String message, HttpStatus status) {
         Map<String, Object> response = new HashMap<>();
         response.put("status", status.value());
@@ -0,0 +1,93 @@
+package com.et.server.controller;
+
+import com.et.server.service.GesturePipelineMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// ML 서버와의 WebSocket 스트림 (/et/eyeTracking/stream)
+// 수신: {"type":"device","sessionId":"...","deviceName":"TV"}
+//       {"type":"gesture","sessionId":"...","gestureName":"Blink","async":false}
+// 송신: getDevice/getGesture와 같은 응답 본문 + type (+ requestId)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EyeTrackingStreamHandler extends TextWebSocketHandler {
+
+    private final EyeTrackingController eyeTrackingController;
+    private final ObjectMapper objectMapper;
+    private final GesturePipelineMetrics metrics;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        log.info("아이트래킹 스트림 연결: {}", session.getRemoteAddress());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Map<String, Object> result;
+        String type = null;
+        JsonNode requestId = null;
+
+        long parseStart = System.nanoTime();
+        try {
+            JsonNode event = objectMapper.readTree(message.getPayload());
+            long parseNanos = System.nanoTime() - parseStart;
+            type = event.path("type").asText(null);
+            requestId = event.get("requestId");
+            String sessionId = event.path("sessionId").asText(null);
+
+            if ("device".equals(type)) {
+                result = eyeTrackingController.getDevice(sessionId, event.path("deviceName").asText()).getBody();
+            } else if ("gesture".equals(type)) {
+                metrics.record(GesturePipelineMetrics.STAGE_PARSE, null, parseNanos);
+                ResponseEntity<Map<String, Object>> response = eyeTrackingController.getGesture(
+                        sessionId, event.path("gestureName").asText(), event.path("async").asBoolean(false));
+                result = response.getBody();
+            } else {
+                result = errorMessage(HttpStatus.BAD_REQUEST, "지원하지 않는 이벤트 유형입니다: " + type);
+            }
+        } catch (IOException e) {
+            log.warn("아이트래킹 스트림 메시지 파싱 실패: {}", e.getMessage());
+            result = errorMessage(HttpStatus.BAD_REQUEST, "메시지 형식이 올바르지 않습니다.");
+        } catch (Exception e) {
+            log.error("아이트래킹 스트림 처리 중 오류 발생: ", e);
+            result = errorMessage(HttpStatus.INTERNAL_SERVER_ERROR, "처리 중 오류가 발생했습니다.");
+        }
+
+        result.put("type", type);
+        if (requestId != null) {
+            result.put("requestId", requestId);
+        }
+        long serializeStart = System.nanoTime();
+        TextMessage reply = new TextMessage(objectMapper.writeValueAsString(result));
+        if ("gesture".equals(type)) {
+            metrics.record(GesturePipelineMetrics.STAGE_SERIALIZE, null, System.nanoTime() - serializeStart);
+        }
+        session.sendMessage(reply);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        log.info("아이트래킹 스트림 종료: {}, {}", session.getRemoteAddress(), status);
+    }
+
+    private Map<String, Object> errorMessage(HttpStatus status, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", status.value());
+        response.put("message", message);
+        return response;
+    }
+}
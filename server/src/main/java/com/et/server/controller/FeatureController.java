@@ -2,11 +2,20 @@ package com.et.server.controller;
 
 import com.et.server.entity.Feature;
 import com.et.server.entity.Gesture;
+import com.et.server.entity.MacroStep;
+import com.et.server.service.ArduinoGateway;
+import com.et.server.service.ArduinoUnavailableException;
 import com.et.server.service.FeatureService;
+import com.et.server.service.HomeEventService;
+import com.et.server.service.IrCommand;
+import com.et.server.service.IrDispatchService;
+import com.et.server.service.IrLearningService;
+import com.et.server.service.IrStep;
+import com.et.server.service.MediaCache;
+import com.et.server.service.MediaService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.*;
@@ -14,12 +23,18 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @RestController
@@ -29,62 +44,169 @@ public class FeatureController {
     @Autowired
     private FeatureService featureService;
 
-    @Value("${app.arduino-url}")
-    private String ARDUINO_URL;
+    @Autowired
+    private ArduinoGateway arduinoGateway;
+
+    @Autowired
+    private IrDispatchService irDispatchService;
+
+    @Autowired
+    private IrLearningService irLearningService;
+
+    @Autowired
+    private HomeEventService homeEventService;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private MediaCache mediaCache;
+
+    @Autowired
+    private KeysetPageWriter keysetPageWriter;
 
     @Value("${app.upload-dir}")
     private String UPLOAD_DIR;
 
-    private volatile String getIrValue;     // 수신된 IR 값을 저장하는 변수
+    private static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    private static final String HOME_ID_HEADER = "X-Home-Id";
 
-    // 아두이노 서버에 Boolean 값을 보내는 메서드
+    // 아두이노 서버에 Boolean 값을 보내고 IR 값 수신을 기다리는 메서드
+    // 요청 스레드를 붙잡지 않고, receiveIr로 IR 값이 들어오거나 시간이 지나면 응답
     @PostMapping("/sendBoolean")
-    public ResponseEntity<Map<String, Object>> sendBoolean(@RequestParam boolean value) {
-        String arduinoUrl = ARDUINO_URL + "/sendBoolean";
+    public DeferredResult<ResponseEntity<Map<String, Object>>> sendBoolean(@RequestParam boolean value,
+                                                                           @RequestParam(required = false) Long homeId) {
+        DeferredResult<ResponseEntity<Map<String, Object>>> result = new DeferredResult<>(irLearningService.getTimeoutMs() + 1000);
+        IrLearningService.LearningRequest request = irLearningService.start(homeId);
+        String correlationId = request.correlationId();
+        log.info("IR 학습 요청: homeId={}, correlationId={}", homeId, correlationId);
 
         try {
-            // HTTP 요청 헤더 설정
+            // 아두이노 서버에 요청 전송 (서킷 브레이커 경유), 수신 시 correlationId(또는 homeId)를 함께 보내도록 헤더로 전달
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.TEXT_PLAIN);
-
-            // HTTP 요청 엔터티 생성 및 요청 전송
-            HttpEntity<String> entity = new HttpEntity<>(String.valueOf(value), headers);
-            new RestTemplate().postForObject(arduinoUrl, entity, String.class);
-
-            // 아두이노의 응답 대기
-            synchronized (this) {
-                wait(5000); // 최대 대기 시간 5초
+            headers.set(CORRELATION_ID_HEADER, correlationId);
+            if (homeId != null) {
+                headers.set(HOME_ID_HEADER, String.valueOf(homeId));
             }
+            arduinoGateway.post("/sendBoolean", String.valueOf(value), headers);
+        } catch (ArduinoUnavailableException e) {
+            log.warn("아두이노 서버 호출 차단: {}", e.getMessage());
+            irLearningService.cancel(correlationId);
+            result.setResult(createResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE));
+            return result;
+        } catch (RestClientException e) {
+            log.error("아두이노 서버 요청 중 오류 발생: {}", e.getMessage());
+            irLearningService.cancel(correlationId);
+            result.setResult(createResponse("아두이노 서버 요청 중 오류 발생: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR));
+            return result;
+        }
 
-            // 응답 데이터 구성 및 반환
+        // 아두이노의 응답 대기 (시간 초과 시 irValue는 null)
+        request.irValue().whenComplete((irValue, e) -> {
+            if (e instanceof CancellationException) {
+                result.setResult(createResponse("IR 학습 요청이 취소되었습니다.", HttpStatus.SERVICE_UNAVAILABLE));
+                return;
+            }
+            if (e != null && !(e instanceof TimeoutException)) {
+                result.setResult(createResponse("IR 수신 중 오류 발생: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR));
+                return;
+            }
             Map<String, Object> response = new HashMap<>();
             response.put("status", HttpStatus.OK.value());
             response.put("message", value ? "수신부 작동 요청 성공!" : "수신부 작동 요청 실패!");
-            response.put("irValue", getIrValue);
-            getIrValue = null;
+            response.put("irValue", irValue);
+            response.put("correlationId", correlationId);
             response.put("booleanValue", false);
-            return ResponseEntity.ok(response);
-        } catch (InterruptedException e) {
-            log.error("IR 값 수신 중 인터럽트 발생: {}", e.getMessage());
-            return createResponse("IR 값 수신 중 인터럽트 발생: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
-        } catch (RestClientException e) {
-            log.error("아두이노 서버 요청 중 오류 발생: {}", e.getMessage());
-            return createResponse("아두이노 서버 요청 중 오류 발생: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+            result.setResult(ResponseEntity.ok(response));
+        });
+        result.onTimeout(() -> irLearningService.cancel(correlationId));
+        return result;
     }
 
     // 아두이노에서 수신된 IR 값을 처리하는 메서드
+    // body: {"irValue": "...", "correlationId": "..."}
+    // correlationId가 없는 기존 펌웨어는 homeId를 함께 보내야 하며, 같은 홈의 가장 오래된 요청에 전달
     @PostMapping("/receiveIr")
     public ResponseEntity<Map<String, Object>> receiveIrValue(@RequestBody Map<String, String> body) {
         String irValue = body.get("irValue");
-        synchronized (this) {
-            getIrValue = irValue;
-            notifyAll();    // 대기 중인 sendBoolean 메서드에 알림
+        String correlationId = body.get("correlationId");
+        Long homeId;
+        try {
+            homeId = body.get("homeId") != null ? Long.valueOf(body.get("homeId")) : null;
+        } catch (NumberFormatException e) {
+            return createResponse("homeId 형식이 올바르지 않습니다.", HttpStatus.BAD_REQUEST);
+        }
+        if (correlationId == null && homeId == null) {
+            log.warn("correlationId와 homeId가 없는 IR 값 무시: irValue = {}", irValue);
+            return createResponse("correlationId 또는 homeId가 필요합니다.", HttpStatus.BAD_REQUEST);
+        }
+
+        IrLearningService.LearningRequest request = irLearningService.complete(correlationId, homeId, irValue);
+        if (request != null) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("correlationId", request.correlationId());
+            event.put("irValue", irValue);
+            homeEventService.publish(request.homeId(), HomeEventService.EVENT_IR_LEARNED, event);
         }
         log.info("IR 값 수신 성공: irValue = {}", irValue);
         return createResponse("IR 수신 성공! ir: " + irValue, HttpStatus.OK);
     }
 
+    // 여러 기능/IR 값을 순서대로 전송 (단계별 대기 시간)
+    // 단계 사이 대기가 있으므로 비동기로 전송하고 명령 ID를 즉시 반환, 단계별 결과는 /et/eyeTracking/command로 조회
+    @PostMapping("/sendBatch")
+    public ResponseEntity<Map<String, Object>> sendBatch(@RequestBody List<BatchStep> steps) {
+        log.info("IR 배치 전송 요청: steps={}", steps.size());
+        try {
+            IrCommand command = irDispatchService.dispatchAsync(null, null, null, toIrSteps(steps));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", HttpStatus.ACCEPTED.value());
+            response.put("message", "IR 배치 전송 요청 접수");
+            response.put("commandId", command.getId());
+            log.info("IR 배치 전송 접수: commandId={}", command.getId());
+            return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+        } catch (IllegalStateException e) {
+            log.error("IR 배치 전송 실패: {}", e.getMessage());
+            return createResponse("IR 배치 전송 실패: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // 기능을 매크로로 설정 (제스처 실행 시 여러 IR 값을 순서대로 전송), 빈 목록이면 해제
+    @PostMapping("/setMacro")
+    public ResponseEntity<Map<String, Object>> setMacro(@RequestParam Long featureId,
+                                                        @RequestBody List<BatchStep> steps) {
+        log.info("매크로 설정 요청: featureId={}, steps={}", featureId, steps.size());
+        try {
+            List<MacroStep> macroSteps = toIrSteps(steps).stream()
+                    .map(step -> new MacroStep(step.ir(), step.delayMs()))
+                    .toList();
+            Feature feature = featureService.updateMacro(featureId, macroSteps);
+            log.info("매크로 설정 성공: featureId={}", featureId);
+            return createResponse("매크로 설정 성공!", HttpStatus.OK, feature);
+        } catch (IllegalStateException e) {
+            log.error("매크로 설정 실패: {}", e.getMessage());
+            return createResponse("매크로 설정 실패: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // 요청 단계를 IR 단계로 변환 (featureId는 해당 기능의 IR/매크로로 펼침)
+    private List<IrStep> toIrSteps(List<BatchStep> steps) {
+        List<IrStep> irSteps = new ArrayList<>();
+        for (BatchStep step : steps) {
+            if (step.featureId() != null) {
+                List<IrStep> featureSteps = featureService.findSteps(step.featureId());
+                irSteps.addAll(featureSteps.subList(0, featureSteps.size() - 1));
+                irSteps.add(new IrStep(featureSteps.get(featureSteps.size() - 1).ir(), step.delayMs()));
+            } else if (step.ir() != null && !step.ir().isEmpty()) {
+                irSteps.add(new IrStep(step.ir(), step.delayMs()));
+            } else {
+                throw new IllegalStateException("각 단계에는 featureId 또는 ir 값이 필요합니다.");
+            }
+        }
+        return irSteps;
+    }
+
     // 새로운 Feature(기능)를 추가하는 메서드
     @PostMapping("/addFeature")
     public ResponseEntity<Map<String, Object>> addFeature(@RequestParam Long deviceId,
@@ -125,14 +247,14 @@ public class FeatureController {
 
     // 특정 기기의 모든 Feature(기능) 조회
     @GetMapping("/findAllFeatures")
-    public ResponseEntity<MultiValueMap<String, Object>> findAllFeatures(@RequestParam Long deviceId) {
+    public ResponseEntity<MultiValueMap<String, Object>> findAllFeatures(@RequestParam Long deviceId) throws IOException {
         log.info("전체 기능 조회 요청: deviceId={}", deviceId);
 
         List<Feature> features = featureService.findAllFeatures(deviceId);
         MultiValueMap<String, Object> responseData = new LinkedMultiValueMap<>();
 
         for (Feature feature : features) {
-            log.info("FeatureId={}, Name={}, IR={}", feature.getId(), feature.getName(), feature.getIr());
+            log.info("FeatureId={}, Name={}, IrHash={}", feature.getId(), feature.getName(), feature.getIrHash());
 
             // Feature 데이터를 JSON 형태로 추가
             Map<String, Object> featureData = createFeatureDataMap(feature);
@@ -153,6 +275,29 @@ public class FeatureController {
         return new ResponseEntity<>(responseData, headers, HttpStatus.OK);
     }
 
+    // 특정 기기의 Feature(기능) 목록 조회 (JSON, 제스처 사진은 URL로 제공)
+    // afterId: 이전 페이지의 nextCursor (없으면 처음부터), size: 페이지 크기
+    @GetMapping("/list")
+    public ResponseEntity<StreamingResponseBody> listFeatures(@RequestParam Long deviceId,
+                                                              @RequestParam(required = false) Long afterId,
+                                                              @RequestParam(required = false) Integer size) {
+        log.info("기능 목록 조회 요청: deviceId={}, afterId={}", deviceId, afterId);
+        int pageSize = keysetPageWriter.pageSize(size);
+        List<Feature> features = featureService.findFeaturesPage(deviceId, afterId, pageSize + 1);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", HttpStatus.OK.value());
+        fields.put("message", "전체 기능 조회 성공");
+        return keysetPageWriter.write(fields, features, pageSize, Feature::getId, (generator, feature) -> {
+            generator.writeNumberField("featureId", feature.getId());
+            generator.writeStringField("name", feature.getName());
+            Gesture gesture = feature.getGesture();
+            if (gesture != null) {
+                generator.writeStringField("gestureName", gesture.getName());
+                generator.writeStringField("photoUrl", mediaService.photoUrl("gesture", gesture.getPhotoPath()));
+            }
+        });
+    }
+
     // Feature 데이터 맵 생성
     private Map<String, Object> createFeatureDataMap(Feature feature) {
         Map<String, Object> featureData = new HashMap<>();
@@ -162,12 +307,12 @@ public class FeatureController {
     }
 
     // 제스처의 사진 파일을 응답 데이터에 추가
-    private void addPhotoToResponseData(MultiValueMap<String, Object> responseData, Gesture gesture) {
+    private void addPhotoToResponseData(MultiValueMap<String, Object> responseData, Gesture gesture) throws IOException {
         String photoFilename = gesture.getPhotoPath();
         if (photoFilename != null && !photoFilename.isEmpty()) {
             File photoFile = new File(UPLOAD_DIR + "/gesture/" + photoFilename);
             if (photoFile.exists()) {
-                Resource resource = new FileSystemResource(photoFile);
+                Resource resource = mediaCache.resource(photoFile.toPath());
                 HttpHeaders fileHeaders = new HttpHeaders();
                 fileHeaders.setContentDispositionFormData("photo", photoFile.getName());
                 fileHeaders.setContentType(MediaType.IMAGE_PNG);
@@ -177,6 +322,10 @@ public class FeatureController {
         }
     }
 
+    // 배치/매크로 단계 요청 (featureId 또는 ir 중 하나, delayMs는 다음 단계까지 대기 시간)
+    public record BatchStep(Long featureId, String ir, long delayMs) {
+    }
+
     // 응답 생성 (기능 추가 시)
     private ResponseEntity<Map<String, Object>> createResponse(String message, HttpStatus status, Feature feature) {
         Map<String, Object> response = new HashMap<>();
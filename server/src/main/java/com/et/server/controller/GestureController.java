@@ -2,25 +2,21 @@ package com.et.server.controller;
 
 import com.et.server.entity.Feature;
 import com.et.server.service.FeatureService;
+import com.et.server.service.GestureCatalog;
+import com.et.server.service.IrCodeService;
+import com.et.server.service.MediaService;
 import com.et.server.service.GestureService;
 import com.et.server.entity.Gesture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,34 +32,42 @@ public class GestureController {
     @Autowired
     private GestureService gestureService;
 
-    @Value("${app.upload-dir}")
-    private String UPLOAD_DIR;
+    @Autowired
+    private IrCodeService irCodeService;
 
-    @GetMapping("/findAllGestures")
-    public ResponseEntity<MultiValueMap<String, Object>> findAllGestures() {
-        log.info("전체 제스처 조회 요청");
+    @Autowired
+    private MediaService mediaService;
 
-        List<Gesture> gestures = gestureService.findAllGestures();
-        MultiValueMap<String, Object> responseData = new LinkedMultiValueMap<>();
+    @Autowired
+    private GestureCatalog gestureCatalog;
 
-        for (Gesture gesture : gestures) {
-            log.info("Gesture Name={}", gesture.getName());
+    // 미리 직렬화해 둔 카탈로그를 그대로 전송 (If-None-Match가 ETag와 같으면 304)
+    @GetMapping("/findAllGestures")
+    public ResponseEntity<byte[]> findAllGestures() {
+        log.info("전체 제스처 조회 요청");
+        GestureCatalog.Snapshot catalog = gestureCatalog.get();
+        return ResponseEntity.ok()
+                .contentType(catalog.contentType())
+                .eTag(catalog.etag())
+                .body(catalog.body());
+    }
 
-            // 제스처 정보(JSON) 추가
+    // 전체 제스처 조회 (JSON, 사진은 URL로 제공)
+    @GetMapping("/list")
+    public ResponseEntity<Map<String, Object>> listGestures() {
+        log.info("전체 제스처 목록 조회 요청");
+        List<Map<String, Object>> gestures = new ArrayList<>();
+        for (Gesture gesture : gestureService.findAllGestures()) {
             Map<String, Object> gestureData = createGestureDataMap(gesture);
-            HttpHeaders jsonHeaders = new HttpHeaders();
-            jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
-            responseData.add("gestureData", new ResponseEntity<>(gestureData, jsonHeaders, HttpStatus.OK));
-
-            // 사진 파일 추가
-            addPhotoToResponseData(responseData, gesture);
+            gestureData.put("photoUrl", mediaService.photoUrl("gesture", gesture.getPhotoPath()));
+            gestures.add(gestureData);
         }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
-        log.info("전체 제스처 조회 성공");
-
-        return new ResponseEntity<>(responseData, headers, HttpStatus.OK);
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.OK.value());
+        response.put("message", "전체 제스처 조회 성공");
+        response.put("data", gestures);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/isSelected")
@@ -98,7 +102,7 @@ public class GestureController {
         Map<String, Object> featureData = new HashMap<>();
         featureData.put("featureId", feature.getId());
         featureData.put("name", feature.getName());
-        featureData.put("ir", feature.getIr());
+        featureData.put("ir", irCodeService.resolveIr(feature));
 
         // 제스처 정보 추가
         if (feature.getGesture() != null) {
@@ -115,23 +119,6 @@ public class GestureController {
         return gestureData;
     }
 
-    // 사진 파일을 응답 데이터에 추가하는 메서드
-    private void addPhotoToResponseData(MultiValueMap<String, Object> responseData, Gesture gesture) {
-        String photoFilename = gesture.getPhotoPath();
-        if (photoFilename != null && !photoFilename.isEmpty()) {
-            File photoFile = new File(UPLOAD_DIR + "/gesture/" + photoFilename);
-            if (photoFile.exists()) {
-                Resource resource = new FileSystemResource(photoFile);
-                HttpHeaders fileHeaders = new HttpHeaders();
-                fileHeaders.setContentDispositionFormData("photo", photoFile.getName());
-                fileHeaders.setContentType(MediaType.IMAGE_PNG);
-                responseData.add("gestureData", new ResponseEntity<>(resource, fileHeaders, HttpStatus.OK));
-            } else {
-                log.warn("사진 파일을 찾을 수 없음: filename={}", photoFilename);
-            }
-        }
-    }
-
     private ResponseEntity<Map<String, Object>> createResponse(String message, HttpStatus status) {
         Map<String, Object> response = new HashMap<>();
         response.put("status", status.value());
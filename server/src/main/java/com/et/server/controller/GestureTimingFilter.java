@@ -0,0 +1,51 @@
+package com.et.server.controller;
+
+import com.et.server.service.GesturePipelineMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+import static com.et.server.service.GesturePipelineMetrics.*;
+
+// getGesture 요청의 파싱/직렬화/전체 시간 측정
+@Component
+@RequiredArgsConstructor
+public class GestureTimingFilter extends OncePerRequestFilter {
+
+    private final GesturePipelineMetrics metrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().endsWith("/et/eyeTracking/getGesture");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        request.setAttribute(ATTR_REQUEST_START, start);
+        try {
+            filterChain.doFilter(request, response);
+            response.flushBuffer();
+        } finally {
+            long end = System.nanoTime();
+            String gestureName = (String) request.getAttribute(ATTR_GESTURE);
+            Long handlerStart = (Long) request.getAttribute(ATTR_HANDLER_START);
+            Long handlerEnd = (Long) request.getAttribute(ATTR_HANDLER_END);
+
+            if (handlerStart != null) {
+                metrics.record(STAGE_PARSE, gestureName, handlerStart - start);
+            }
+            if (handlerEnd != null) {
+                metrics.record(STAGE_SERIALIZE, gestureName, end - handlerEnd);
+            }
+            metrics.record(STAGE_TOTAL, gestureName, end - start);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.et.server.controller;
 
+import com.et.server.service.UploadLimitExceededException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,6 +20,14 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(UploadLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleUploadLimitExceededException(UploadLimitExceededException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "429");
+        response.put("message", e.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleException(Exception e) {
         Map<String, String> response = new HashMap<>();
@@ -0,0 +1,75 @@
+package com.et.server.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+// 키셋 페이지 목록 응답: 행마다 JsonGenerator로 바로 출력 (중간 Map을 만들지 않음)
+// {기존 목록 응답 필드(status, message, ...), "data": [...], "nextCursor": 마지막 id (다음 페이지가 없으면 null)}
+@Component
+@RequiredArgsConstructor
+public class KeysetPageWriter {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.list.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.list.max-page-size:200}")
+    private int maxPageSize;
+
+    // 요청한 페이지 크기를 1 ~ max-page-size로 제한
+    public int pageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+
+    // fields: data 앞에 출력할 응답 필드 (각 목록 API의 기존 응답 형태 유지, 순서가 정해진 LinkedHashMap)
+    // rows: pageSize + 1개까지 조회한 결과 (pageSize보다 많으면 다음 페이지가 있음)
+    public <T> ResponseEntity<StreamingResponseBody> write(Map<String, Object> fields, List<T> rows, int pageSize,
+                                                           ToLongFunction<T> idOf, RowWriter<T> rowWriter) {
+        List<T> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = rows.size() > pageSize ? idOf.applyAsLong(page.get(page.size() - 1)) : null;
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                for (Map.Entry<String, Object> field : fields.entrySet()) {
+                    generator.writeObjectField(field.getKey(), field.getValue());
+                }
+                generator.writeArrayFieldStart("data");
+                for (T row : page) {
+                    generator.writeStartObject();
+                    rowWriter.write(generator, row);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                if (nextCursor != null) {
+                    generator.writeNumberField("nextCursor", nextCursor);
+                } else {
+                    generator.writeNullField("nextCursor");
+                }
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 행 하나의 필드 출력
+    @FunctionalInterface
+    public interface RowWriter<T> {
+        void write(JsonGenerator generator, T row) throws IOException;
+    }
+}
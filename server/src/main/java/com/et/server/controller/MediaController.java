@@ -0,0 +1,53 @@
+package com.et.server.controller;
+
+import com.et.server.service.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// 사진 파일 제공 (ETag/Last-Modified 조건부 요청, Cache-Control, Range 지원)
+@Slf4j
+@RestController
+@RequestMapping("/et/media")
+public class MediaController {
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private RangeFileSender rangeFileSender;
+
+    @Value("${app.media.max-age-seconds:86400}")
+    private long maxAgeSeconds;
+
+    // size: 썸네일 크기 (없으면 원본)
+    @GetMapping("/{category}/{filename:.+}")
+    public void getMedia(@PathVariable String category,
+                         @PathVariable String filename,
+                         @RequestParam(required = false) Integer size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path file = thumbnailService.resolve(category, filename, size);
+        if (file == null) {
+            log.error("잘못된 사진 요청: category={}, filename={}", category, filename);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String contentType = MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+        rangeFileSender.sendCacheable(request, response, file, contentType, "max-age=" + maxAgeSeconds);
+    }
+}
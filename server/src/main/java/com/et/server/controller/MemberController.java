@@ -1,21 +1,34 @@
 package com.et.server.controller;
 
 import com.et.server.entity.Member;
+import com.et.server.service.MediaCache;
+import com.et.server.service.MediaService;
 import com.et.server.service.MemberService;
+import com.et.server.service.MlForwardingService;
+import com.et.server.service.ThumbnailService;
+import com.et.server.service.VideoLinkSigner;
+import com.et.server.service.VideoUploadService;
+import com.et.server.service.VideoUploadService.ChunkResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.*;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
@@ -30,74 +43,210 @@ public class MemberController {
     @Value("${app.upload-dir}")
     private String UPLOAD_DIR;
 
-    private final Map<Long, StringBuilder> uploadSessions = new HashMap<>();
-    private final Map<Long, Integer> uploadedChunks = new HashMap<>();
+    @Autowired
+    private VideoUploadService videoUploadService;
+
+    @Autowired
+    private MlForwardingService mlForwardingService;
+
+    @Autowired
+    private VideoLinkSigner videoLinkSigner;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private MediaCache mediaCache;
+
+    @Autowired
+    private KeysetPageWriter keysetPageWriter;
+
+    @Autowired
+    private RangeFileSender rangeFileSender;
+
+    // push: 조각마다 ML 서버로 전송, pull: 업로드 완료 후 서명된 URL만 알리고 ML 서버가 가져감
+    @Value("${app.ml-handoff.mode:push}")
+    private String mlHandoffMode;
 
     @PostMapping("/addMember")
     public ResponseEntity<Map<String, Object>> uploadFile(@RequestParam Long homeId,
                                                           @RequestParam String name,
-                                                          @RequestParam String videoChunk,
+                                                          @RequestParam(required = false) String videoChunk,
+                                                          @RequestPart(required = false) MultipartFile videoFile,
+                                                          @RequestParam(required = false) String uploadId,
                                                           @RequestParam Integer chunkIndex,
                                                           @RequestParam Integer totalChunks) throws IOException {
+        // multipart 파일 파트로 받은 경우 바이너리 조각으로 처리
+        if (videoFile != null && !videoFile.isEmpty()) {
+            try (InputStream in = videoFile.getInputStream()) {
+                return addMemberChunk(homeId, name, chunkIndex, totalChunks, uploadId, in, videoFile.getSize());
+            }
+        }
+        // uploadId가 있으면 조각마다 따로 디코딩하여 제 위치에 기록
+        if (uploadId != null && videoChunk != null) {
+            byte[] decoded = Base64.getDecoder().decode(videoChunk);
+            return addMemberChunk(homeId, name, chunkIndex, totalChunks, uploadId, new ByteArrayInputStream(decoded), decoded.length);
+        }
 
-        // 서버에 영상 저장
-        handleChunkedUpload(homeId, videoChunk, chunkIndex, totalChunks);
+        // 서버에 영상 저장 (임시 파일에 이어 쓰기)
+        String uploadKey = "addMember:" + homeId;
+        mlForwardingService.checkCapacity(uploadKey, chunkIndex);
+        ChunkResult result = handleChunkedUpload(uploadKey, homeId, videoChunk, chunkIndex, totalChunks);
 
-        // ML 서버 통신
-        String mlResponse = memberService.sendVideoToMLUpload(name, videoChunk, chunkIndex, totalChunks - 1);
-        log.info("ML 서버 응답: {}", mlResponse);
+        // ML 서버 통신 (비동기)
+        forwardToML(uploadKey, result, chunkIndex, totalChunks,
+                (index, chunk) -> memberService.sendVideoToMLUpload(name, chunk, index, totalChunks - 1));
 
-        if (uploadedChunks.get(homeId).equals(totalChunks)) {
-            // 모든 영상 조각이 서버에 저장되었을 때
-            String base64Data = uploadSessions.remove(homeId).toString();
-            uploadedChunks.remove(homeId);
-            String videoFilename = saveBase64EncodedFile(base64Data, homeId, "video");
+        return completeAddMember(uploadKey, homeId, name, result);
+    }
 
-            // 사용자 정보 저장
-            Member member = new Member();
-            member.setName(name);
-            member.setVideoPath(videoFilename);
+    // 바이너리 조각 업로드 (base64 인코딩 없이 본문 그대로, 조각 정보는 헤더로 전달)
+    // 본문은 메모리에 모으지 않고 임시 파일로 바로 복사
+    @PostMapping(value = "/addMember", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadBinaryChunk(@RequestParam Long homeId,
+                                                                 @RequestParam String name,
+                                                                 @RequestHeader("X-Chunk-Index") Integer chunkIndex,
+                                                                 @RequestHeader("X-Total-Chunks") Integer totalChunks,
+                                                                 @RequestHeader(value = "X-Upload-Id", required = false) String uploadId,
+                                                                 HttpServletRequest request) throws IOException {
+        return addMemberChunk(homeId, name, chunkIndex, totalChunks, uploadId, request.getInputStream(), request.getContentLengthLong());
+    }
 
-            Member newMember = memberService.addMember(homeId, member);
-            log.info("모든 영상 조각 수신 완료, 사용자 추가 성공: {}", newMember);
+    private ResponseEntity<Map<String, Object>> addMemberChunk(Long homeId, String name, Integer chunkIndex, Integer totalChunks,
+                                                               String uploadId, InputStream videoChunk, long contentLength) throws IOException {
+        String uploadKey = "addMember:" + homeId;
+        String sessionKey = uploadId != null ? uploadId : uploadKey;
+        mlForwardingService.checkCapacity(sessionKey, chunkIndex);
+        ChunkResult result = handleChunkedUpload(uploadKey, uploadId, homeId, videoChunk, contentLength, chunkIndex, totalChunks);
 
-            return createResponse("사용자 추가 성공! 영상 처리 완료.", newMember, homeId);
-        } else {
-            return createResponse("영상 조각 업로드 성공", null, homeId);
-        }
+        // ML 서버 통신 (비동기)
+        forwardToML(sessionKey, result, chunkIndex, totalChunks,
+                (index, chunk) -> memberService.sendVideoToMLUpload(name, chunk, index, totalChunks - 1));
+
+        return completeAddMember(sessionKey, homeId, name, result);
     }
 
     @PostMapping("/addVideo")
     public ResponseEntity<Map<String, Object>> addVideo(@RequestParam Long memberId,
-                                                        @RequestParam String videoChunk,
+                                                        @RequestParam(required = false) String videoChunk,
+                                                        @RequestPart(required = false) MultipartFile videoFile,
+                                                        @RequestParam(required = false) String uploadId,
                                                         @RequestParam Integer chunkIndex,
                                                         @RequestParam Integer totalChunks) throws IOException {
+        // multipart 파일 파트로 받은 경우 바이너리 조각으로 처리
+        if (videoFile != null && !videoFile.isEmpty()) {
+            try (InputStream in = videoFile.getInputStream()) {
+                return addVideoChunk(memberId, chunkIndex, totalChunks, uploadId, in, videoFile.getSize());
+            }
+        }
+        // uploadId가 있으면 조각마다 따로 디코딩하여 제 위치에 기록
+        if (uploadId != null && videoChunk != null) {
+            byte[] decoded = Base64.getDecoder().decode(videoChunk);
+            return addVideoChunk(memberId, chunkIndex, totalChunks, uploadId, new ByteArrayInputStream(decoded), decoded.length);
+        }
         log.info("영상 추가 요청: memberId={}", memberId);
 
         // memberId로 사용자 정보를 조회하여 이름 가져오기
         Member member = memberService.findMember(memberId);
         String name = member.getName();
         log.info("사용자 이름: {}", name);
-        handleChunkedUpload(memberId, videoChunk, chunkIndex, totalChunks);
+        String uploadKey = "addVideo:" + memberId;
+        mlForwardingService.checkCapacity(uploadKey, chunkIndex);
+        ChunkResult result = handleChunkedUpload(uploadKey, memberId, videoChunk, chunkIndex, totalChunks);
 
-        // ML 서버 통신
-        String mlResponse = memberService.sendVideoToMLAdd(name, videoChunk, chunkIndex, totalChunks - 1);
-        log.info("ML 서버 응답: {}", mlResponse);
+        // ML 서버 통신 (비동기)
+        forwardToML(uploadKey, result, chunkIndex, totalChunks,
+                (index, chunk) -> memberService.sendVideoToMLAdd(name, chunk, index, totalChunks - 1));
 
-        if (uploadedChunks.get(memberId).equals(totalChunks)) {
-            // 모든 영상 조각이 서버에 저장되었을 때
-            String base64Data = uploadSessions.remove(memberId).toString();
-            uploadedChunks.remove(memberId);
-            String videoFilename2 = saveBase64EncodedFile(base64Data, memberId, "video2");
+        return completeAddVideo(uploadKey, member, result);
+    }
 
-            // 사용자의 두 번째 영상 경로 업데이트
-            member.setVideoPath2(videoFilename2);
-            Member updatedMember = memberService.updateMember(memberId, member.getName(), null, videoFilename2);
-            log.info("영상 추가 성공: {}", updatedMember);
-            return createResponse("동영상 추가 성공!", updatedMember);
-        } else {
-            return createResponse("영상 조각 업로드 성공", null);
+    // 바이너리 조각 업로드 (base64 인코딩 없이 본문 그대로, 조각 정보는 헤더로 전달)
+    // 본문은 메모리에 모으지 않고 임시 파일로 바로 복사
+    @PostMapping(value = "/addVideo", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> addBinaryVideoChunk(@RequestParam Long memberId,
+                                                                   @RequestHeader("X-Chunk-Index") Integer chunkIndex,
+                                                                   @RequestHeader("X-Total-Chunks") Integer totalChunks,
+                                                                   @RequestHeader(value = "X-Upload-Id", required = false) String uploadId,
+                                                                   HttpServletRequest request) throws IOException {
+        return addVideoChunk(memberId, chunkIndex, totalChunks, uploadId, request.getInputStream(), request.getContentLengthLong());
+    }
+
+    private ResponseEntity<Map<String, Object>> addVideoChunk(Long memberId, Integer chunkIndex, Integer totalChunks,
+                                                              String uploadId, InputStream videoChunk, long contentLength) throws IOException {
+        log.info("영상 추가 요청: memberId={}", memberId);
+        Member member = memberService.findMember(memberId);
+        String uploadKey = "addVideo:" + memberId;
+        String sessionKey = uploadId != null ? uploadId : uploadKey;
+        mlForwardingService.checkCapacity(sessionKey, chunkIndex);
+        ChunkResult result = handleChunkedUpload(uploadKey, uploadId, memberId, videoChunk, contentLength, chunkIndex, totalChunks);
+
+        // ML 서버 통신 (비동기)
+        String name = member.getName();
+        forwardToML(sessionKey, result, chunkIndex, totalChunks,
+                (index, chunk) -> memberService.sendVideoToMLAdd(name, chunk, index, totalChunks - 1));
+
+        return completeAddVideo(sessionKey, member, result);
+    }
+
+    // 재개 가능한 업로드 시작 (addMember는 homeId, addVideo는 memberId 지정)
+    // 이후 조각은 uploadId(X-Upload-Id)와 함께 순서와 상관없이 보낼 수 있음
+    @PostMapping("/startUpload")
+    public ResponseEntity<Map<String, Object>> startUpload(@RequestParam(required = false) Long homeId,
+                                                           @RequestParam(required = false) Long memberId,
+                                                           @RequestParam Integer totalChunks,
+                                                           @RequestParam Long chunkSize) {
+        if ((homeId == null) == (memberId == null)) {
+            throw new IllegalStateException("homeId와 memberId 중 하나만 지정해야 합니다.");
         }
+        String owner = homeId != null ? "addMember:" + homeId : "addVideo:" + memberId;
+        String uploadId = videoUploadService.begin(owner, totalChunks, chunkSize);
+        return createResponse("업로드 시작", Map.of("uploadId", uploadId));
+    }
+
+    // 재개 가능한 업로드 진행 상태 (받지 못한 조각 번호 목록)
+    @GetMapping("/uploadStatus")
+    public ResponseEntity<Map<String, Object>> uploadStatus(@RequestParam String uploadId) {
+        return createResponse("업로드 상태 조회 성공", videoUploadService.status(uploadId));
+    }
+
+    // ML 서버가 서명된 URL로 저장된 영상을 가져감 (Range 지원)
+    @GetMapping("/video")
+    public void getVideo(@RequestParam String file,
+                         @RequestParam long expires,
+                         @RequestParam String signature,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        if (file.contains("/") || file.contains("\\") || file.contains("..")
+                || !videoLinkSigner.verify(file, expires, signature)) {
+            log.error("잘못된 영상 URL 요청: file={}", file);
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        rangeFileSender.send(request, response, Paths.get(getDeviceUploadDir("video"), file), "video/mp4");
+    }
+
+    // 사용자 목록 조회 (JSON, 사진은 URL로 제공)
+    // afterId: 이전 페이지의 nextCursor (없으면 처음부터), size: 페이지 크기
+    @GetMapping("/list")
+    public ResponseEntity<StreamingResponseBody> listMembers(@RequestParam Long homeId,
+                                                             @RequestParam(required = false) Long afterId,
+                                                             @RequestParam(required = false) Integer size) {
+        log.info("사용자 목록 조회 요청: homeId={}, afterId={}", homeId, afterId);
+        int pageSize = keysetPageWriter.pageSize(size);
+        List<Member> members = memberService.findMembersPage(homeId, afterId, pageSize + 1);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", "200");
+        fields.put("message", "전체 사용자 조회 성공");
+        fields.put("homeId", homeId);
+        return keysetPageWriter.write(fields, members, pageSize, Member::getId, (generator, member) -> {
+            generator.writeNumberField("memberId", member.getId());
+            generator.writeStringField("name", member.getName());
+            generator.writeStringField("photoUrl", mediaService.photoUrl("photo", member.getPhotoPath()));
+        });
     }
 
     @PutMapping("/updateMember")
@@ -129,8 +278,10 @@ public class MemberController {
         return createResponse("사용자 삭제 성공!", null);
     }
 
+    // size: 썸네일 크기 (없으면 원본)
     @GetMapping("/findMember")
-    public ResponseEntity<Resource> findMember(@RequestParam Long memberId) throws IOException {
+    public ResponseEntity<Resource> findMember(@RequestParam Long memberId,
+                                               @RequestParam(required = false) Integer size) throws IOException {
         log.info("사용자 조회 요청: memberId={}", memberId);
         Member member = memberService.findMember(memberId);
         if (member == null) {
@@ -138,13 +289,15 @@ public class MemberController {
             return ResponseEntity.notFound().build();
         }
 
-        File photoFile = new File(UPLOAD_DIR + "/photo/" + member.getPhotoPath());
-        if (!photoFile.exists()) {
+        Path photoPath = member.getPhotoPath() == null ? null
+                : thumbnailService.resolve("photo", member.getPhotoPath(), size);
+        File photoFile = photoPath == null ? null : photoPath.toFile();
+        if (photoFile == null || !photoFile.exists()) {
             log.error("사진 파일을 찾을 수 없습니다: {}", member.getPhotoPath());
             return ResponseEntity.notFound().build();
         }
 
-        Resource resource = new FileSystemResource(photoFile);
+        Resource resource = mediaCache.resource(photoFile.toPath());
         return ResponseEntity.ok()
                 .contentType(MediaType.IMAGE_PNG)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + photoFile.getName() + "\"")
@@ -183,7 +336,7 @@ public class MemberController {
                 File photoFile = new File(UPLOAD_DIR + "/photo/" + photoFilename);
 
                 if (photoFile.exists()) {
-                    Resource resource = new FileSystemResource(photoFile);
+                    Resource resource = mediaCache.resource(photoFile.toPath());
 
                     HttpHeaders fileHeaders = new HttpHeaders();
                     fileHeaders.setContentDispositionFormData("photo", photoFile.getName());
@@ -201,30 +354,106 @@ public class MemberController {
         return new ResponseEntity<>(responseData, headers, HttpStatus.OK);
     }
 
-    // 조각 업로드 처리 로직
-    private void handleChunkedUpload(Long id, String chunk, Integer chunkIndex, Integer totalChunks) {
+    private boolean isPullHandoff() {
+        return "pull".equalsIgnoreCase(mlHandoffMode);
+    }
+
+    // 저장된 조각의 ML 서버 전송 예약 (이미 받은 조각은 다시 보내지 않음)
+    // 조각은 이미 임시 파일에 저장되었으므로 전송 완료를 기다리지 않고 응답, 전송할 때 파일에서 다시 읽음
+    private void forwardToML(String sessionKey, ChunkResult result, int chunkIndex, int totalChunks,
+                             MlForwardingService.ChunkSender sender) {
+        if (!result.duplicate() && !isPullHandoff()) {
+            mlForwardingService.submit(sessionKey, chunkIndex, totalChunks, result.stored(), sender);
+        }
+    }
+
+    // 모든 조각을 받았으면 영상을 저장하고 사용자 추가
+    private ResponseEntity<Map<String, Object>> completeAddMember(String uploadKey, Long homeId, String name,
+                                                                  ChunkResult result) throws IOException {
+        if (result.isComplete()) {
+            // 모든 영상 조각이 서버에 저장되었을 때
+            String videoFilename = saveUploadedVideo(uploadKey, homeId, "video");
+
+            // 사용자 정보 저장
+            Member member = new Member();
+            member.setName(name);
+            member.setVideoPath(videoFilename);
+
+            Member newMember = memberService.addMember(homeId, member);
+            log.info("모든 영상 조각 수신 완료, 사용자 추가 성공: {}", newMember);
+            if (isPullHandoff()) {
+                String videoUrl = videoLinkSigner.sign(videoFilename);
+                mlForwardingService.sendAsync("notify:" + videoFilename,
+                        () -> memberService.notifyVideoToMLUpload(name, videoUrl));
+            }
+
+            return createResponse("사용자 추가 성공! 영상 처리 완료.", newMember, homeId);
+        } else {
+            return createResponse("영상 조각 업로드 성공", null, homeId);
+        }
+    }
+
+    // 모든 조각을 받았으면 영상을 저장하고 사용자의 두 번째 영상으로 등록
+    private ResponseEntity<Map<String, Object>> completeAddVideo(String uploadKey, Member member,
+                                                                 ChunkResult result) throws IOException {
+        Long memberId = member.getId();
+        if (result.isComplete()) {
+            // 모든 영상 조각이 서버에 저장되었을 때
+            String videoFilename2 = saveUploadedVideo(uploadKey, memberId, "video2");
+
+            // 사용자의 두 번째 영상 경로 업데이트
+            member.setVideoPath2(videoFilename2);
+            Member updatedMember = memberService.updateMember(memberId, member.getName(), null, videoFilename2);
+            log.info("영상 추가 성공: {}", updatedMember);
+            if (isPullHandoff()) {
+                String videoUrl = videoLinkSigner.sign(videoFilename2);
+                String name = member.getName();
+                mlForwardingService.sendAsync("notify:" + videoFilename2,
+                        () -> memberService.notifyVideoToMLAdd(name, videoUrl));
+            }
+            return createResponse("동영상 추가 성공!", updatedMember);
+        } else {
+            return createResponse("영상 조각 업로드 성공", null);
+        }
+    }
+
+    // 조각 업로드 처리 로직 (base64, 순서대로만 받음)
+    private ChunkResult handleChunkedUpload(String uploadKey, Long id, String chunk, Integer chunkIndex, Integer totalChunks) throws IOException {
         if (chunk != null && chunkIndex != null && totalChunks != null) {
-            uploadSessions.computeIfAbsent(id, k -> new StringBuilder()).append(chunk);
-            uploadedChunks.merge(id, 1, Integer::sum);
+            ChunkResult result = videoUploadService.appendBase64Chunk(uploadKey, chunkIndex, totalChunks, chunk);
             log.info("memberId={}, chunkIndex={}/{}", id, chunkIndex + 1, totalChunks);
+            return result;
         } else {
             log.error("조각 정보가 잘못되었습니다: memberId={}", id);
             throw new IllegalStateException("조각 정보가 잘못되었습니다.");
         }
     }
 
-    // Base64 인코딩된 파일 저장 및 파일명 반환
-    private String saveBase64EncodedFile(String base64Data, Long id, String fileType) throws IOException {
-        byte[] decodedBytes = Base64.getDecoder().decode(base64Data);
+    // 조각 업로드 처리 로직 (바이너리), uploadId가 있으면 제 위치에 기록하고 없으면 순서대로만 받음
+    // contentLength: 본문 크기 (모르면 -1)
+    private ChunkResult handleChunkedUpload(String uploadKey, String uploadId, Long id, InputStream chunk, long contentLength,
+                                            Integer chunkIndex, Integer totalChunks) throws IOException {
+        if (contentLength != 0 && chunkIndex != null && totalChunks != null) {
+            ChunkResult result = uploadId != null
+                    ? videoUploadService.writeChunk(uploadId, uploadKey, chunkIndex, chunk, contentLength)
+                    : videoUploadService.appendChunk(uploadKey, chunkIndex, totalChunks, chunk, contentLength);
+            log.info("memberId={}, chunkIndex={}/{}, bytes={}, duplicate={}",
+                    id, chunkIndex + 1, totalChunks, contentLength, result.duplicate());
+            return result;
+        } else {
+            log.error("조각 정보가 잘못되었습니다: memberId={}", id);
+            throw new IllegalStateException("조각 정보가 잘못되었습니다.");
+        }
+    }
+
+    // 업로드된 영상(임시 파일)을 최종 위치로 옮기고 파일명 반환
+    private String saveUploadedVideo(String uploadKey, Long id, String fileType) throws IOException {
         String fileExtension = getFileExtension(fileType);
         String date = new SimpleDateFormat("yyyyMMdd").format(new Date());
         String baseFileName = date + "_member" + id;
         File dest = createUniqueFile(getDeviceUploadDir(fileType), baseFileName, fileExtension);
 
-        try (FileOutputStream fos = new FileOutputStream(dest)) {
-            fos.write(decodedBytes);
-        }
-
+        videoUploadService.complete(uploadKey, dest.toPath());
         return dest.getName();
     }
 
@@ -272,6 +501,9 @@ public class MemberController {
         try (FileOutputStream fos = new FileOutputStream(dest)) {
             fos.write(file.getBytes());
         }
+        if (fileType.equals("photo")) {
+            thumbnailService.generateAsync("photo", dest.getName());
+        }
 
         return dest.getName();
     }
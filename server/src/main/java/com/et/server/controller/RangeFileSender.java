@@ -0,0 +1,151 @@
+package com.et.server.controller;
+
+import com.et.server.service.MediaCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// 파일 응답 (HTTP Range 지원)
+// 작은 사진은 메모리 캐시에서 전송하고, 그 외에는 Tomcat sendfile을 쓸 수 있으면 커널에서 바로 전송(zero-copy),
+// 아니면 FileChannel.transferTo로 전송
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RangeFileSender {
+
+    private final MediaCache mediaCache;
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    public void send(HttpServletRequest request, HttpServletResponse response, Path file, String contentType)
+            throws IOException {
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        sendRange(request, response, file, null, contentType, true);
+    }
+
+    // 캐시 가능한 파일 응답: ETag/Last-Modified를 붙이고, 클라이언트 캐시가 최신이면 304
+    // 업로드 파일은 같은 이름으로 덮어쓰지 않으므로 크기와 수정 시각으로 만든 ETag를 강한 ETag로 사용
+    public void sendCacheable(HttpServletRequest request, HttpServletResponse response, Path file,
+                              String contentType, String cacheControl) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        // If-Range가 현재 ETag와 다르면 파일이 바뀐 것이므로 전체 파일로 응답
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        byte[] cached = mediaCache.get(file, size, lastModified);
+        sendRange(request, response, file, cached, contentType, ifRange == null || ifRange.equals(etag));
+    }
+
+    // cached: 메모리 캐시에 있는 파일 내용 (없으면 null, 파일에서 전송)
+    private void sendRange(HttpServletRequest request, HttpServletResponse response, Path file, byte[] cached,
+                           String contentType, boolean rangeAllowed) throws IOException {
+        long length = cached != null ? cached.length : Files.size(file);
+        long start = 0;
+        long end = length - 1;
+
+        // 단일 범위만 지원 (여러 범위 요청은 전체 파일로 응답)
+        String range = rangeAllowed ? request.getHeader(HttpHeaders.RANGE) : null;
+        if (range != null && range.startsWith("bytes=") && !range.contains(",")) {
+            long[] bounds = parseRange(range.substring("bytes=".length()).trim(), length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (cached != null) {
+            response.getOutputStream().write(cached, (int) start, (int) count);
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // "start-end", "start-", "-suffix" -> {start, end}, 만족할 수 없는 범위면 null
+    private long[] parseRange(String spec, long length) {
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String second = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(second);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = second.isEmpty() ? length - 1 : Math.min(Long.parseLong(second), length - 1);
+            }
+            if (start < 0 || start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            log.info("잘못된 Range 헤더: {}", spec);
+            return null;
+        }
+    }
+}
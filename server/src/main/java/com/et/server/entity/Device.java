@@ -7,6 +7,8 @@ import lombok.Setter;
 
 @Entity
 @Getter @Setter
+// 홈 단위 기기 이름 조회용 인덱스
+@Table(indexes = {@Index(name = "idx_device_home_name", columnList = "home_id, name")})
 public class Device {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -5,6 +5,9 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Entity
 @Getter @Setter
 // 해당 레코드에 값이 2개 이상 존재하지 않도록 보장 -> 각 기기 당 하나의 제스처만 선택 가능
@@ -21,13 +24,23 @@ public class Feature {
     private Device device;
 
     private String name;
-    private String ir;  // 아두이노 통신
+    private String ir;  // 아두이노 통신 (IR 코드 테이블로 이전되기 전의 기존 데이터)
+
+    @Column(name = "ir_hash", length = 64)
+    private String irHash;  // IR 코드 참조 (IrCode.hash)
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     @JoinColumn(name = "gesture_name")
     private Gesture gesture;
 
+    // 매크로: 순서대로 전송할 IR 목록 (비어 있으면 ir 하나만 전송)
+    @ElementCollection
+    @JsonIgnore
+    @CollectionTable(name = "feature_macro_step", joinColumns = @JoinColumn(name = "feature_id"))
+    @OrderColumn(name = "step_order")
+    private List<MacroStep> macroSteps = new ArrayList<>();
+
     public Feature() {
     }
 
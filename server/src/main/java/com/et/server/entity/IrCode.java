@@ -0,0 +1,28 @@
+package com.et.server.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter @Setter
+// IR 코드 (내용 주소 기반: 같은 코드는 한 번만 저장)
+public class IrCode {
+
+    @Id
+    @Column(length = 64)
+    private String hash;    // 인코딩된 데이터의 SHA-256 (hex)
+
+    @Column(nullable = false, length = 8192)
+    private byte[] data;    // IrCodec으로 인코딩된 데이터
+
+    public IrCode() {
+    }
+
+    public IrCode(String hash, byte[] data) {
+        this.hash = hash;
+        this.data = data;
+    }
+}
@@ -0,0 +1,27 @@
+package com.et.server.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+
+// 매크로 단계: 전송할 IR 값과 다음 단계까지의 대기 시간
+@Embeddable
+@Getter @Setter
+public class MacroStep {
+
+    private String ir;      // IR 코드 테이블로 이전되기 전의 기존 데이터
+
+    @Column(name = "ir_hash", length = 64)
+    private String irHash;  // IR 코드 참조 (IrCode.hash)
+
+    private long delayMs;
+
+    public MacroStep() {
+    }
+
+    public MacroStep(String ir, long delayMs) {
+        this.ir = ir;
+        this.delayMs = delayMs;
+    }
+}
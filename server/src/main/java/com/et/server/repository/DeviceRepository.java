@@ -29,9 +29,21 @@ public class DeviceRepository {
                 .getResultList();
     }
 
-    public Device findByName(String deviceName) {
-        List<Device> result = em.createQuery("from Device d where d.name = :deviceName", Device.class)
+    // 키셋 페이지 조회: afterId 다음부터 id 순으로 limit개
+    public List<Device> findPage(Long homeId, Long afterId, int limit) {
+        return em.createQuery("from Device d where d.home.id = :homeId and d.id > :afterId order by d.id", Device.class)
+                .setParameter("homeId", homeId)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // 홈 안에서 이름으로 조회 (home_id, name 인덱스 사용)
+    public Device findByHomeIdAndName(Long homeId, String deviceName) {
+        List<Device> result = em.createQuery("from Device d where d.home.id = :homeId and d.name = :deviceName order by d.id", Device.class)
+                .setParameter("homeId", homeId)
                 .setParameter("deviceName", deviceName)
+                .setMaxResults(1)
                 .getResultList();
 
         return result.isEmpty() ? null : result.get(0);  // 조회 결과가 없으면 null 반환
@@ -41,4 +41,43 @@ public class FeatureRepository {
                 .setParameter("deviceId", deviceId)
                 .getResultList();
     }
+
+    // 제스처를 함께 조회 (지연 로딩 방지), id 순
+    public List<Feature> findAllWithGesture(Long deviceId) {
+        return em.createQuery("select f from Feature f left join fetch f.gesture where f.device.id = :deviceId order by f.id", Feature.class)
+                .setParameter("deviceId", deviceId)
+                .getResultList();
+    }
+
+    // 디스패치 테이블용 조회: 제스처와 매크로 단계를 한 번에 조회 (기능마다 매크로 조회 방지), id 순
+    public List<Feature> findAllForDispatch(Long deviceId) {
+        return em.createQuery("select distinct f from Feature f left join fetch f.gesture left join fetch f.macroSteps"
+                        + " where f.device.id = :deviceId order by f.id", Feature.class)
+                .setParameter("deviceId", deviceId)
+                .getResultList();
+    }
+
+    // 키셋 페이지 조회 (Gesture 함께 조회): afterId 다음부터 id 순으로 limit개
+    public List<Feature> findPageWithGesture(Long deviceId, Long afterId, int limit) {
+        return em.createQuery("select f from Feature f left join fetch f.gesture"
+                        + " where f.device.id = :deviceId and f.id > :afterId order by f.id", Feature.class)
+                .setParameter("deviceId", deviceId)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // IR 코드 테이블로 이전되지 않은 기능 조회
+    public List<Feature> findAllWithLegacyIr() {
+        return em.createQuery("from Feature f where f.ir is not null and f.irHash is null", Feature.class)
+                .getResultList();
+    }
+
+    // 매크로 단계 중 IR 코드 테이블로 이전되지 않은 단계가 있는 기능 조회 (매크로 단계 함께 조회)
+    public List<Feature> findAllWithLegacyMacroIr() {
+        return em.createQuery("select distinct f from Feature f left join fetch f.macroSteps"
+                        + " where f.id in (select f2.id from Feature f2 join f2.macroSteps s"
+                        + " where s.ir is not null and s.irHash is null)", Feature.class)
+                .getResultList();
+    }
 }
@@ -0,0 +1,27 @@
+package com.et.server.repository;
+
+import com.et.server.entity.IrCode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class IrCodeRepository {
+
+    @PersistenceContext
+    EntityManager em;
+
+    // 별도 트랜잭션으로 바로 저장 (같은 hash가 동시에 저장되면 DataIntegrityViolationException)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public String save(IrCode irCode) {
+        em.persist(irCode);
+        em.flush();
+        return irCode.getHash();
+    }
+
+    public IrCode findByHash(String hash) {
+        return em.find(IrCode.class, hash);
+    }
+}
@@ -36,4 +36,13 @@ public class MemberRepository {
                 .setParameter("homeId", homeId)
                 .getResultList();
     }
+
+    // 키셋 페이지 조회: afterId 다음부터 id 순으로 limit개
+    public List<Member> findPage(Long homeId, Long afterId, int limit) {
+        return em.createQuery("from Member m where m.home.id = :homeId and m.id > :afterId order by m.id", Member.class)
+                .setParameter("homeId", homeId)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
 }
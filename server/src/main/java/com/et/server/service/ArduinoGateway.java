@@ -0,0 +1,134 @@
+package com.et.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+// 아두이노 서버 호출 게이트웨이 (서킷 브레이커 + 동시 호출 제한)
+@Slf4j
+@Component
+public class ArduinoGateway {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final RestTemplate restTemplate;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+
+    @Value("${app.arduino-url}")
+    private String ARDUINO_URL;
+
+    @Value("${app.arduino.failure-threshold:5}")
+    private int failureThreshold;   // 연속 실패 횟수가 이 값에 도달하면 OPEN
+
+    @Value("${app.arduino.open-duration-ms:10000}")
+    private long openDurationMs;    // OPEN 상태 유지 시간, 이후 한 번의 시험 호출 허용
+
+    // 서킷 브레이커 상태 (this로 동기화)
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public ArduinoGateway(RestTemplate restTemplate,
+                          @Value("${app.arduino.max-concurrent-calls:8}") int maxConcurrentCalls) {
+        this.restTemplate = restTemplate;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+    }
+
+    // 아두이노 서버에 text/plain POST 요청 전송
+    public ResponseEntity<String> post(String path, String body) {
+        return post(path, body, new HttpHeaders());
+    }
+
+    // 추가 헤더와 함께 text/plain POST 요청 전송
+    public ResponseEntity<String> post(String path, String body, HttpHeaders headers) {
+        if (!bulkhead.tryAcquire()) {
+            throw new ArduinoUnavailableException("아두이노 서버 동시 호출 한도를 초과했습니다.");
+        }
+        try {
+            if (!tryAcquirePermission()) {
+                throw new ArduinoUnavailableException("아두이노 서버가 응답하지 않아 호출이 차단되었습니다.");
+            }
+
+            headers.setContentType(MediaType.TEXT_PLAIN);
+            try {
+                ResponseEntity<String> response = restTemplate.postForEntity(ARDUINO_URL + path, new HttpEntity<>(body, headers), String.class);
+                onSuccess();
+                return response;
+            } catch (ResourceAccessException | HttpServerErrorException e) {
+                onFailure();
+                throw e;
+            } catch (RuntimeException e) {
+                // 4xx 등은 아두이노가 응답한 것이므로 장애로 보지 않음
+                onSuccess();
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // 서킷 브레이커 상태 조회
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", currentState().name());
+        status.put("consecutiveFailures", consecutiveFailures);
+        status.put("activeCalls", maxConcurrentCalls - bulkhead.availablePermits());
+        status.put("maxConcurrentCalls", maxConcurrentCalls);
+        return status;
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        State current = currentState();
+        if (current == State.OPEN) {
+            return false;
+        }
+        if (current == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    private synchronized State currentState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        return state;
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("아두이노 서버 복구, 서킷 브레이커 CLOSED");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            log.warn("아두이노 서버 장애 감지, 서킷 브레이커 OPEN: consecutiveFailures={}", consecutiveFailures);
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            probeInFlight = false;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.et.server.service;
+
+// 아두이노 서버 호출이 차단되었을 때 (서킷 브레이커 OPEN 또는 동시 호출 한도 초과)
+public class ArduinoUnavailableException extends RuntimeException {
+
+    public ArduinoUnavailableException(String message) {
+        super(message);
+    }
+}
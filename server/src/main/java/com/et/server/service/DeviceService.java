@@ -43,4 +43,15 @@ public class DeviceService {
     public List<Device> findAllDevices(Long homeId) {
         return deviceRepository.findAll(homeId);
     }
+
+    // 기기 페이지 조회 (afterId가 없으면 처음부터)
+    public List<Device> findDevicesPage(Long homeId, Long afterId, int limit) {
+        return deviceRepository.findPage(homeId, afterId == null ? 0L : afterId, limit);
+    }
+
+    // 홈 안에서 기기 이름으로 기기 ID 조회 ((home_id, name) 인덱스 사용, 없으면 null 반환)
+    public Long findDeviceId(Long homeId, String name) {
+        Device device = deviceRepository.findByHomeIdAndName(homeId, name);
+        return device == null ? null : device.getId();
+    }
 }
@@ -0,0 +1,54 @@
+package com.et.server.service;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 아이트래킹 세션 (홈/사용자 단위로 격리된 상태)
+@Getter
+public class EyeTrackingSession {
+
+    private final String id;
+    private final Long homeId;
+    private final Long memberId;
+    private final String memberName;
+
+    @Setter
+    private volatile boolean cameraOn;
+
+    // ML 서버가 탐지한 기기 ID
+    @Setter
+    private volatile Long deviceId;
+
+    // 마지막 사용 시각 (오래 사용하지 않은 세션 정리용)
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    // "deviceId:gestureName" -> 마지막으로 처리한 시각 (디바운스용)
+    private final Map<String, Long> lastGestureAt = new ConcurrentHashMap<>();
+
+    public EyeTrackingSession(String id, Long homeId, Long memberId, String memberName) {
+        this.id = id;
+        this.homeId = homeId;
+        this.memberId = memberId;
+        this.memberName = memberName;
+    }
+
+    public void touch(long now) {
+        lastActivity = now;
+    }
+
+    // 디바운스 창 안에 같은 기기/제스처가 이미 처리되었으면 false (중복 제스처)
+    public boolean acceptGesture(Long deviceId, String gestureName, long now, long windowMs) {
+        boolean[] accepted = {false};
+        lastGestureAt.compute(deviceId + ":" + gestureName, (key, last) -> {
+            if (last != null && now - last < windowMs) {
+                return last;
+            }
+            accepted[0] = true;
+            return now;
+        });
+        return accepted[0];
+    }
+}
@@ -0,0 +1,81 @@
+package com.et.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 아이트래킹 세션 저장소 (동시에 여러 홈의 세션을 관리)
+@Slf4j
+@Component
+public class EyeTrackingSessionRegistry {
+
+    // sessionId -> 세션
+    private final Map<String, EyeTrackingSession> sessions = new ConcurrentHashMap<>();
+
+    // "homeId:memberId" -> sessionId
+    private final Map<String, String> sessionIdsByMember = new ConcurrentHashMap<>();
+
+    @Value("${app.eye-tracking.session-idle-ttl-ms:1800000}")
+    private long sessionIdleTtlMs;  // 이 시간 동안 사용하지 않으면 세션 정리 (endSession 없이 끊긴 클라이언트)
+
+    // 세션 생성 (같은 홈/사용자의 세션이 이미 있으면 재사용)
+    public EyeTrackingSession open(Long homeId, Long memberId, String memberName) {
+        EyeTrackingSession[] opened = new EyeTrackingSession[1];
+        sessionIdsByMember.compute(memberKey(homeId, memberId), (key, existingId) -> {
+            EyeTrackingSession existing = existingId != null ? sessions.get(existingId) : null;
+            if (existing != null) {
+                existing.touch(System.currentTimeMillis());
+                opened[0] = existing;
+                return existingId;
+            }
+            EyeTrackingSession session = new EyeTrackingSession(UUID.randomUUID().toString(), homeId, memberId, memberName);
+            sessions.put(session.getId(), session);
+            opened[0] = session;
+            return session.getId();
+        });
+        return opened[0];
+    }
+
+    // 세션 조회 (없으면 null 반환)
+    public EyeTrackingSession find(String sessionId) {
+        EyeTrackingSession session = sessionId == null ? null : sessions.get(sessionId);
+        if (session != null) {
+            session.touch(System.currentTimeMillis());
+        }
+        return session;
+    }
+
+    // 세션 종료
+    public void close(String sessionId) {
+        EyeTrackingSession session = sessions.remove(sessionId);
+        if (session != null) {
+            sessionIdsByMember.remove(memberKey(session.getHomeId(), session.getMemberId()), sessionId);
+        }
+    }
+
+    // 오래 사용하지 않은 세션 정리 (두 맵 모두에서 제거)
+    @Scheduled(fixedDelayString = "${app.eye-tracking.sweep-interval-ms:60000}")
+    public void evictIdleSessions() {
+        long expiredBefore = System.currentTimeMillis() - sessionIdleTtlMs;
+        sessions.forEach((sessionId, session) -> {
+            if (session.getLastActivity() < expiredBefore) {
+                close(sessionId);
+                log.info("사용하지 않는 세션 정리: sessionId={}, homeId={}, memberId={}",
+                        sessionId, session.getHomeId(), session.getMemberId());
+            }
+        });
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private String memberKey(Long homeId, Long memberId) {
+        return homeId + ":" + memberId;
+    }
+}
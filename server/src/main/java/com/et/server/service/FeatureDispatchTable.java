@@ -0,0 +1,41 @@
+package com.et.server.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// 기기별 제스처 -> IR 디스패치 테이블 (메모리 캐시)
+@Component
+public class FeatureDispatchTable {
+
+    // deviceId -> (gestureName -> 디스패치 정보)
+    private final Map<Long, Map<String, Entry>> table = new ConcurrentHashMap<>();
+
+    // 캐시에 없으면 loader로 생성하여 저장
+    // 같은 deviceId에 대한 invalidate는 로딩이 끝날 때까지 대기하므로 오래된 값이 남지 않음
+    public Map<String, Entry> getOrLoad(Long deviceId, Function<Long, Map<String, Entry>> loader) {
+        return table.computeIfAbsent(deviceId, loader);
+    }
+
+    // 기기의 디스패치 정보 무효화
+    public void invalidate(Long deviceId) {
+        table.remove(deviceId);
+    }
+
+    // 디스패치에 필요한 Feature/Gesture 정보 (불변)
+    public record Entry(Long featureId, String name, String ir, String gestureName, String description,
+                        List<IrStep> macroSteps) {
+
+        // 전송할 IR 단계 (매크로가 없으면 ir 하나)
+        public List<IrStep> steps() {
+            return macroSteps.isEmpty() ? List.of(new IrStep(ir, 0)) : macroSteps;
+        }
+
+        public boolean isMacro() {
+            return !macroSteps.isEmpty();
+        }
+    }
+}
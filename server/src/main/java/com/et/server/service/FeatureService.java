@@ -3,14 +3,21 @@ package com.et.server.service;
 import com.et.server.entity.Device;
 import com.et.server.entity.Feature;
 import com.et.server.entity.Gesture;
+import com.et.server.entity.MacroStep;
 import com.et.server.repository.DeviceRepository;
 import com.et.server.repository.FeatureRepository;
 import com.et.server.repository.GestureRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional(readOnly = true)
@@ -20,6 +27,12 @@ public class FeatureService {
     private final FeatureRepository featureRepository;
     private final DeviceRepository deviceRepository;
     private final GestureRepository gestureRepository;
+    private final FeatureDispatchTable dispatchTable;
+    private final GesturePipelineMetrics metrics;
+    private final IrCodeService irCodeService;
+
+    @Value("${app.ir-dispatch.max-batch-steps:20}")
+    private int maxMacroSteps;  // 매크로 최대 단계 수 (IR 전송 시 배치 제한과 같음)
 
     // 기능 추가
     @Transactional
@@ -40,8 +53,15 @@ public class FeatureService {
         feature.setDevice(device);
         feature.setGesture(gesture);
 
+        // IR 값은 IR 코드 테이블에 저장하고 hash로 참조
+        if (feature.getIr() != null) {
+            feature.setIrHash(irCodeService.store(feature.getIr()));
+            feature.setIr(null);
+        }
+
         // Feature 저장
         featureRepository.save(feature);
+        invalidateDispatchAfterCommit(deviceId);
     }
 
     // 기능 삭제
@@ -53,7 +73,11 @@ public class FeatureService {
         }
 
         // 기능을 삭제
+        Long deviceId = feature.getDevice() != null ? feature.getDevice().getId() : null;
         featureRepository.delete(feature);
+        if (deviceId != null) {
+            invalidateDispatchAfterCommit(deviceId);
+        }
     }
 
     // 기능 조회
@@ -65,8 +89,83 @@ public class FeatureService {
         return feature;
     }
 
+    // 기능을 매크로로 설정 (빈 목록이면 매크로 해제)
+    @Transactional
+    public Feature updateMacro(Long featureId, List<MacroStep> steps) {
+        if (steps.size() > maxMacroSteps) {
+            throw new IllegalStateException("매크로 단계는 " + maxMacroSteps + "개 이하여야 합니다.");
+        }
+
+        Feature feature = findFeature(featureId);
+        feature.getMacroSteps().clear();
+        // 단계의 IR 값은 IR 코드 테이블에 저장하고 hash로 참조 (반복되는 코드는 한 번만 저장)
+        steps.forEach(step -> feature.getMacroSteps().add(irCodeService.storeStep(step)));
+        if (feature.getDevice() != null) {
+            invalidateDispatchAfterCommit(feature.getDevice().getId());
+        }
+        return feature;
+    }
+
+    // 기능이 전송할 IR 단계 조회 (매크로가 없으면 ir 하나)
+    public List<IrStep> findSteps(Long featureId) {
+        Feature feature = findFeature(featureId);
+        List<IrStep> steps = toSteps(feature);
+        return steps.isEmpty() ? List.of(new IrStep(irCodeService.resolveIr(feature), 0)) : steps;
+    }
+
+    private List<IrStep> toSteps(Feature feature) {
+        return feature.getMacroSteps().stream()
+                .map(step -> new IrStep(irCodeService.resolveIr(step), step.getDelayMs()))
+                .toList();
+    }
+
     // 특정 기기의 모든 기능 조회
     public List<Feature> findAllFeatures(Long deviceId) {
         return featureRepository.findAllDeviceId(deviceId);
     }
+
+    // 특정 기기의 모든 기능을 제스처와 함께 조회 (트랜잭션 밖에서도 제스처 접근 가능)
+    public List<Feature> findAllFeaturesWithGesture(Long deviceId) {
+        return featureRepository.findAllWithGesture(deviceId);
+    }
+
+    // Feature 페이지 조회 (Gesture 포함, afterId가 없으면 처음부터)
+    public List<Feature> findFeaturesPage(Long deviceId, Long afterId, int limit) {
+        return featureRepository.findPageWithGesture(deviceId, afterId == null ? 0L : afterId, limit);
+    }
+
+    // 특정 기기의 제스처 -> IR 디스패치 테이블 조회 (메모리 캐시, 없으면 DB에서 생성)
+    public Map<String, FeatureDispatchTable.Entry> findDispatchTable(Long deviceId) {
+        return dispatchTable.getOrLoad(deviceId, this::loadDispatchTable);
+    }
+
+    private Map<String, FeatureDispatchTable.Entry> loadDispatchTable(Long deviceId) {
+        long start = System.nanoTime();
+        Map<String, FeatureDispatchTable.Entry> entries = new HashMap<>();
+        // 같은 제스처에 기능이 여러 개면 id가 가장 작은(먼저 등록된) 기능 사용
+        for (Feature feature : featureRepository.findAllForDispatch(deviceId)) {
+            Gesture gesture = feature.getGesture();
+            if (gesture != null && !entries.containsKey(gesture.getName())) {
+                entries.put(gesture.getName(), new FeatureDispatchTable.Entry(
+                        feature.getId(), feature.getName(), irCodeService.resolveIr(feature), gesture.getName(), gesture.getDescription(),
+                        toSteps(feature)));
+            }
+        }
+        metrics.record(GesturePipelineMetrics.STAGE_GESTURE_LOAD, null, System.nanoTime() - start);
+        return Collections.unmodifiableMap(entries);
+    }
+
+    // 트랜잭션 커밋 후 해당 기기의 디스패치 테이블 무효화
+    private void invalidateDispatchAfterCommit(Long deviceId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatchTable.invalidate(deviceId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatchTable.invalidate(deviceId);
+            }
+        });
+    }
 }
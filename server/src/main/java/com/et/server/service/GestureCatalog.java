@@ -0,0 +1,164 @@
+package com.et.server.service;
+
+import com.et.server.entity.Gesture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.support.AllEncompassingFormHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+// 전체 제스처 조회 응답(multipart)을 미리 직렬화해 둔 불변 바이트
+// 시작할 때와 제스처가 바뀔 때만 다시 만들며, 제스처 데이터의 해시를 ETag와 multipart boundary로 사용
+// (같은 제스처면 다시 만들어도, 다른 서버에서 만들어도 같은 ETag와 같은 바이트)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GestureCatalog {
+
+    private final GestureService gestureService;
+    private final MediaService mediaService;
+
+    private volatile Snapshot snapshot;
+
+    // 현재 카탈로그 (아직 없으면 생성)
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener
+    public void onGesturesChanged(GestureService.GesturesChangedEvent event) {
+        rebuild();
+    }
+
+    public synchronized Snapshot rebuild() {
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        MessageDigest digest = sha256();
+        for (Gesture gesture : gestureService.findAllGestures()) {
+            update(digest, gesture.getName());
+            update(digest, gesture.getDescription());
+
+            // 제스처 정보(JSON)
+            Map<String, Object> gestureData = new HashMap<>();
+            gestureData.put("name", gesture.getName());
+            gestureData.put("description", gesture.getDescription());
+            HttpHeaders jsonHeaders = new HttpHeaders();
+            jsonHeaders.setContentType(MediaType.APPLICATION_JSON);
+            parts.add("gestureData", new HttpEntity<>(gestureData, jsonHeaders));
+
+            // 사진 파일
+            addPhoto(parts, gesture, digest);
+        }
+
+        String hash = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        Snapshot built = serialize(parts, hash);
+        snapshot = built;
+        log.info("제스처 카탈로그 생성: gestures={}, bytes={}, etag={}",
+                parts.size(), built.body().length, built.etag());
+        return built;
+    }
+
+    private void addPhoto(MultiValueMap<String, Object> parts, Gesture gesture, MessageDigest digest) {
+        String photoFilename = gesture.getPhotoPath();
+        if (photoFilename == null || photoFilename.isEmpty()) {
+            return;
+        }
+        Path photoFile = mediaService.resolve("gesture", photoFilename);
+        if (photoFile == null || !Files.isRegularFile(photoFile)) {
+            log.warn("사진 파일을 찾을 수 없음: filename={}", photoFilename);
+            return;
+        }
+        try {
+            HttpHeaders fileHeaders = new HttpHeaders();
+            fileHeaders.setContentDispositionFormData("photo", photoFile.getFileName().toString());
+            fileHeaders.setContentType(MediaType.IMAGE_PNG);
+            byte[] photo = Files.readAllBytes(photoFile);
+            update(digest, photoFile.getFileName().toString());
+            update(digest, photo);
+            parts.add("gestureData", new HttpEntity<>(new ByteArrayResource(photo), fileHeaders));
+        } catch (IOException e) {
+            log.error("사진 파일 읽기 실패: filename={}", photoFilename, e);
+        }
+    }
+
+    private Snapshot serialize(MultiValueMap<String, Object> parts, String hash) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        HttpHeaders headers = new HttpHeaders();
+        // 기본 변환기는 매번 임의의 boundary를 만들므로 데이터 해시로 고정
+        byte[] boundary = ("gesture-" + hash).getBytes(StandardCharsets.US_ASCII);
+        AllEncompassingFormHttpMessageConverter converter = new AllEncompassingFormHttpMessageConverter() {
+            @Override
+            protected byte[] generateMultipartBoundary() {
+                return boundary;
+            }
+        };
+        try {
+            converter.write(parts, MediaType.MULTIPART_FORM_DATA, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Snapshot(body.toByteArray(), headers.getContentType(), "\"" + hash + "\"");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 값마다 길이를 앞에 붙여 경계가 섞이지 않게 함 (null은 -1)
+    private static void update(MessageDigest digest, String value) {
+        update(digest, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(MessageDigest digest, byte[] value) {
+        int length = value == null ? -1 : value.length;
+        digest.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+        if (value != null) {
+            digest.update(value);
+        }
+    }
+
+    // contentType에는 multipart boundary가 포함됨
+    public record Snapshot(byte[] body, MediaType contentType, String etag) {
+    }
+}
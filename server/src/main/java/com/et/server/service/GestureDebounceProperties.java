@@ -0,0 +1,26 @@
+package com.et.server.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 제스처 디바운스 설정 (app.gesture-debounce)
+@Getter @Setter
+@Component
+@ConfigurationProperties(prefix = "app.gesture-debounce")
+public class GestureDebounceProperties {
+
+    // 기본 디바운스 창 (ms)
+    private long defaultWindowMs = 500;
+
+    // 제스처별 디바운스 창 (ms), 예: Blink: 800
+    private Map<String, Long> windowMs = new HashMap<>();
+
+    public long windowFor(String gestureName) {
+        return windowMs.getOrDefault(gestureName, defaultWindowMs);
+    }
+}
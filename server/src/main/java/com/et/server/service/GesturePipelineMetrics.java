@@ -0,0 +1,62 @@
+package com.et.server.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+// 제스처 -> IR 전송 파이프라인 단계별 지연 시간 (et.gesture.stage)
+// 태그는 단계와 제스처만 사용 (기기 수에 따라 시계열이 늘지 않도록), 백분위수는 서버에서 히스토그램으로 집계
+@Component
+@RequiredArgsConstructor
+public class GesturePipelineMetrics {
+
+    public static final String STAGE_PARSE = "parse";               // 요청 파싱 (필터 진입 ~ 컨트롤러 진입)
+    public static final String STAGE_LOOKUP = "lookup";             // 디스패치 테이블 조회
+    public static final String STAGE_GESTURE_LOAD = "gesture_load"; // 캐시 미스 시 기능/제스처 DB 조회
+    public static final String STAGE_ARDUINO_RTT = "arduino_rtt";   // 아두이노 왕복 시간
+    public static final String STAGE_SERIALIZE = "serialize";       // 응답 직렬화 (컨트롤러 반환 ~ 응답 완료)
+    public static final String STAGE_TOTAL = "total";
+
+    // 요청 속성 (필터와 컨트롤러 사이 전달)
+    public static final String ATTR_REQUEST_START = GesturePipelineMetrics.class.getName() + ".requestStart";
+    public static final String ATTR_HANDLER_START = GesturePipelineMetrics.class.getName() + ".handlerStart";
+    public static final String ATTR_HANDLER_END = GesturePipelineMetrics.class.getName() + ".handlerEnd";
+    public static final String ATTR_GESTURE = GesturePipelineMetrics.class.getName() + ".gesture";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    public void record(String stage, String gestureName, long nanos) {
+        Timer.builder("et.gesture.stage")
+                .description("제스처 -> IR 전송 파이프라인 단계별 지연 시간")
+                .tag("stage", stage)
+                .tag("gesture", gestureName == null ? UNKNOWN : gestureName)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 컨트롤러 진입 시각 기록 (HTTP 요청이 아니면 무시)
+    public void markHandlerStart() {
+        setAttribute(ATTR_HANDLER_START, System.nanoTime());
+    }
+
+    // 컨트롤러 반환 시각과 태그 기록 (gestureName은 매칭된 제스처만, 아니면 null)
+    public void markHandlerEnd(String gestureName) {
+        setAttribute(ATTR_HANDLER_END, System.nanoTime());
+        setAttribute(ATTR_GESTURE, gestureName);
+    }
+
+    private void setAttribute(String name, Object value) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && value != null) {
+            attributes.setAttribute(name, value, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.et.server.entity.Gesture;
 import com.et.server.repository.GestureRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +18,7 @@ import java.util.List;
 public class GestureService {
 
     private final GestureRepository gestureRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private Path fileStorageLocation;   // 파일 저장 위치
 
@@ -45,10 +47,15 @@ public class GestureService {
 //            gestureRepository.save(new Gesture(null, "down", "down.png", "정면을 보다가 아래를 봐주세요"));
             gestureRepository.save(new Gesture("Blink", "close.png", "정면을 보고 눈을 감았다 떠주세요"));
 //            gestureRepository.save(new Gesture(null, "big", "big.png", "정면을 보고 눈을 크게 떠주세요"));
+            eventPublisher.publishEvent(new GesturesChangedEvent());
         }
     }
 
     public List<Gesture> findAllGestures() {
         return gestureRepository.findAll();
     }
+
+    // 제스처 목록이 바뀜 (커밋 후 GestureCatalog가 다시 생성)
+    public record GesturesChangedEvent() {
+    }
 }
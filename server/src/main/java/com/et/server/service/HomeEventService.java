@@ -0,0 +1,128 @@
+package com.et.server.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 홈 단위 SSE 이벤트 전송 (IR 학습 결과, IR 전송 결과)
+// 전송은 전용 스레드에서 처리 (느린 구독자가 제스처/IR 요청 스레드를 지연시키지 않음)
+@Slf4j
+@Service
+public class HomeEventService {
+
+    public static final String EVENT_IR_LEARNED = "irLearned";
+    public static final String EVENT_IR_DISPATCH = "irDispatch";
+
+    // homeId -> 구독 중인 연결
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor;
+
+    @Value("${app.events.timeout-ms:1800000}")
+    private long timeoutMs;     // 연결 유지 시간, 이후 클라이언트가 재연결
+
+    public HomeEventService(@Value("${app.events.threads:2}") int threads,
+                            @Value("${app.events.queue-capacity:1000}") int queueCapacity) {
+        // 이벤트 전송 전용 스레드 풀 (대기열이 가득 차면 이벤트 버림)
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "home-event-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // 구독 등록 (비동기 응답이므로 연결 중 요청 스레드를 점유하지 않음)
+    // 목록 생성과 추가를 compute 안에서 처리 (remove가 빈 목록을 지운 직후에 추가되어 사라지지 않도록)
+    public SseEmitter subscribe(Long homeId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        List<SseEmitter> homeEmitters = emitters.compute(homeId, (id, current) -> {
+            List<SseEmitter> list = current != null ? current : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+
+        emitter.onCompletion(() -> remove(homeId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(homeId, emitter));
+        log.info("이벤트 구독: homeId={}, connections={}", homeId, homeEmitters.size());
+        return emitter;
+    }
+
+    // 홈의 모든 구독자에게 이벤트 전송 (전송 스레드에 맡기고 바로 반환)
+    public void publish(Long homeId, String eventName, Object data) {
+        if (homeId == null || !emitters.containsKey(homeId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                List<SseEmitter> homeEmitters = emitters.get(homeId);
+                if (homeEmitters == null) {
+                    return;
+                }
+                for (SseEmitter emitter : homeEmitters) {
+                    send(homeId, emitter, SseEmitter.event().name(eventName).data(data));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("이벤트 전송 대기열이 가득 찼습니다: homeId={}, event={}", homeId, eventName);
+        }
+    }
+
+    // 비동기 IR 전송 완료 시 결과 전송
+    @EventListener
+    public void onIrCommandCompleted(IrCommand command) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("commandId", command.getId());
+        data.put("deviceId", command.getDeviceId());
+        data.put("gestureName", command.getGestureName());
+        data.put("result", command.getStatus().name());
+        data.put("stepResults", command.getStepResults());
+        publish(command.getHomeId(), EVENT_IR_DISPATCH, data);
+    }
+
+    // 프록시/클라이언트가 유휴 연결을 끊지 않도록 주기적으로 주석 이벤트 전송
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:30000}")
+    public void heartbeat() {
+        emitters.forEach((homeId, homeEmitters) -> {
+            for (SseEmitter emitter : homeEmitters) {
+                send(homeId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    private void send(Long homeId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // 끊어진 연결 정리
+            remove(homeId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void remove(Long homeId, SseEmitter emitter) {
+        emitters.computeIfPresent(homeId, (id, homeEmitters) -> {
+            homeEmitters.remove(emitter);
+            return homeEmitters.isEmpty() ? null : homeEmitters;
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.et.server.service;
+
+import com.et.server.entity.Feature;
+import com.et.server.entity.IrCode;
+import com.et.server.entity.MacroStep;
+import com.et.server.repository.FeatureRepository;
+import com.et.server.repository.IrCodeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class IrCodeService {
+
+    private final IrCodeRepository irCodeRepository;
+    private final FeatureRepository featureRepository;
+
+    // hash -> 디코딩된 IR 값 (전송 시 재사용, 개수 제한, W-TinyLFU 교체)
+    // 적중/실패 지표: cache.gets{cache=irCode}
+    private final Cache<String, String> decodedCache;
+
+    public IrCodeService(IrCodeRepository irCodeRepository,
+                         FeatureRepository featureRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.ir-code.cache-size:10000}") long cacheSize) {
+        this.irCodeRepository = irCodeRepository;
+        this.featureRepository = featureRepository;
+        this.decodedCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decodedCache, "irCode");
+    }
+
+    // IR 값 저장 (같은 코드가 이미 있으면 재사용), 코드의 hash 반환
+    @Transactional
+    public String store(String ir) {
+        byte[] data = IrCodec.encode(ir);
+        String hash = sha256(data);
+        if (irCodeRepository.findByHash(hash) == null) {
+            try {
+                irCodeRepository.save(new IrCode(hash, data));
+            } catch (DataIntegrityViolationException e) {
+                // 다른 요청이 같은 코드를 먼저 저장함 (내용이 같으므로 그대로 사용)
+                log.debug("IR 코드가 이미 저장되어 있습니다: hash={}", hash);
+            }
+        }
+        return hash;
+    }
+
+    // Feature의 IR 값 조회 (기존 데이터는 ir 컬럼 사용)
+    public String resolveIr(Feature feature) {
+        return feature.getIrHash() != null ? decode(feature.getIrHash()) : feature.getIr();
+    }
+
+    // 매크로 단계의 IR 값 조회 (기존 데이터는 ir 컬럼 사용)
+    public String resolveIr(MacroStep step) {
+        return step.getIrHash() != null ? decode(step.getIrHash()) : step.getIr();
+    }
+
+    // 매크로 단계의 IR 값을 IR 코드 테이블에 저장하고 hash로 참조하는 단계 반환
+    @Transactional
+    public MacroStep storeStep(MacroStep step) {
+        if (step.getIr() == null) {
+            return step;
+        }
+        MacroStep stored = new MacroStep();
+        stored.setIrHash(store(step.getIr()));
+        stored.setDelayMs(step.getDelayMs());
+        return stored;
+    }
+
+    // hash로 IR 값 조회 (캐시)
+    public String decode(String hash) {
+        return decodedCache.get(hash, this::load);
+    }
+
+    private String load(String hash) {
+        IrCode irCode = irCodeRepository.findByHash(hash);
+        if (irCode == null) {
+            throw new IllegalStateException("IR 코드를 찾을 수 없습니다: " + hash);
+        }
+        return IrCodec.decode(irCode.getData());
+    }
+
+    // 기존 ir 컬럼에 저장된 값을 IR 코드 테이블로 이전 (기능과 매크로 단계)
+    @Transactional
+    public int migrateLegacyCodes() {
+        List<Feature> features = featureRepository.findAllWithLegacyIr();
+        for (Feature feature : features) {
+            feature.setIrHash(store(feature.getIr()));
+            feature.setIr(null);
+        }
+        List<Feature> macroFeatures = featureRepository.findAllWithLegacyMacroIr();
+        for (Feature feature : macroFeatures) {
+            feature.getMacroSteps().replaceAll(this::storeStep);
+        }
+        if (!features.isEmpty() || !macroFeatures.isEmpty()) {
+            log.info("IR 코드 이전 완료: featureCount={}, macroFeatureCount={}", features.size(), macroFeatures.size());
+        }
+        return features.size() + macroFeatures.size();
+    }
+
+    private String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
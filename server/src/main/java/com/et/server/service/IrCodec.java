@@ -0,0 +1,90 @@
+package com.et.server.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+// IR 값 압축 인코딩
+// 첫 바이트가 형식을 나타내며, 디코딩 결과가 원래 문자열과 정확히 같을 때만 압축 형식을 사용
+//   0: UTF-8 문자열 그대로
+//   1: 쉼표로 구분된 정수(원시 타이밍) -> zigzag varint
+//   2: "0x" + 대문자 hex -> 바이트
+public final class IrCodec {
+
+    private static final byte TEXT = 0;
+    private static final byte TIMINGS = 1;
+    private static final byte HEX = 2;
+
+    private static final Pattern TIMINGS_PATTERN = Pattern.compile("-?\\d{1,18}(,-?\\d{1,18})*");
+    private static final Pattern HEX_PATTERN = Pattern.compile("0x([0-9A-F]{2})+");
+    private static final HexFormat HEX_FORMAT = HexFormat.of().withUpperCase();
+
+    private IrCodec() {
+    }
+
+    public static byte[] encode(String ir) {
+        byte[] encoded = null;
+        if (TIMINGS_PATTERN.matcher(ir).matches()) {
+            encoded = encodeTimings(ir);
+        } else if (HEX_PATTERN.matcher(ir).matches()) {
+            encoded = prefix(HEX, HEX_FORMAT.parseHex(ir.substring(2)));
+        }
+
+        if (encoded != null && decode(encoded).equals(ir)) {
+            return encoded;
+        }
+        return prefix(TEXT, ir.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decode(byte[] data) {
+        return switch (data[0]) {
+            case TIMINGS -> decodeTimings(data);
+            case HEX -> "0x" + HEX_FORMAT.formatHex(data, 1, data.length);
+            default -> new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+        };
+    }
+
+    private static byte[] encodeTimings(String ir) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ir.length() / 2 + 1);
+        out.write(TIMINGS);
+        for (String token : ir.split(",")) {
+            long value = Long.parseLong(token);
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                out.write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.write((int) zigzag);
+        }
+        return out.toByteArray();
+    }
+
+    private static String decodeTimings(byte[] data) {
+        StringBuilder ir = new StringBuilder(data.length * 3);
+        int position = 1;
+        while (position < data.length) {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            if (ir.length() > 0) {
+                ir.append(',');
+            }
+            ir.append((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+        return ir.toString();
+    }
+
+    private static byte[] prefix(byte format, byte[] body) {
+        byte[] data = new byte[body.length + 1];
+        data[0] = format;
+        System.arraycopy(body, 0, data, 1, body.length);
+        return data;
+    }
+}
@@ -0,0 +1,40 @@
+package com.et.server.service;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// 비동기 IR 전송 명령 (완료 상태 추적용)
+@Getter
+public class IrCommand {
+
+    public enum Status { PENDING, SUCCESS, FAIL, ERROR, UNAVAILABLE }
+
+    private final String id;
+    private final Long homeId;
+    private final Long deviceId;
+    private final String gestureName;
+    private final long createdAt;
+
+    private volatile Status status = Status.PENDING;
+    private volatile long completedAt;
+    private volatile List<String> stepResults = List.of();    // 단계별 결과 (매크로)
+
+    public IrCommand(String id, Long homeId, Long deviceId, String gestureName) {
+        this.id = id;
+        this.homeId = homeId;
+        this.deviceId = deviceId;
+        this.gestureName = gestureName;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    void complete(Status status, List<String> stepResults) {
+        this.stepResults = stepResults;
+        this.status = status;
+        this.completedAt = System.currentTimeMillis();
+    }
+
+    public boolean isDone() {
+        return status != Status.PENDING;
+    }
+}
@@ -0,0 +1,212 @@
+package com.et.server.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 아두이노 서버로 IR 값을 전송하는 서비스 (동기/비동기)
+@Slf4j
+@Service
+public class IrDispatchService {
+
+    private final ArduinoGateway arduinoGateway;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GesturePipelineMetrics metrics;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService scheduler;
+
+    // commandId -> 명령
+    private final Map<String, IrCommand> commands = new ConcurrentHashMap<>();
+
+    @Value("${app.ir-dispatch.retention-ms:60000}")
+    private long retentionMs;   // 완료된 명령 보관 시간
+
+    @Value("${app.ir-dispatch.max-batch-steps:20}")
+    private int maxBatchSteps;  // 배치/매크로 최대 단계 수
+
+    @Value("${app.ir-dispatch.max-step-delay-ms:5000}")
+    private long maxStepDelayMs;    // 단계 간 최대 대기 시간
+
+    public IrDispatchService(ArduinoGateway arduinoGateway,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             GesturePipelineMetrics metrics,
+                             @Value("${app.ir-dispatch.threads:4}") int threads,
+                             @Value("${app.ir-dispatch.queue-capacity:100}") int queueCapacity) {
+        this.arduinoGateway = arduinoGateway;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+
+        // IR 전송 전용 스레드 풀 (요청 스레드와 분리)
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ir-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        // 매크로/배치 단계 사이 대기 후 다음 단계를 풀에 제출하는 스케줄러
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ir-dispatch-delay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 비동기 전송: 명령을 등록하고 즉시 반환
+    // 단계 사이 대기는 스레드를 재우지 않고 스케줄러로 다음 단계를 예약 (대기 중에는 스레드를 점유하지 않음)
+    public IrCommand dispatchAsync(Long homeId, Long deviceId, String gestureName, List<IrStep> steps) {
+        checkBatchSize(steps);
+        IrCommand command = new IrCommand(UUID.randomUUID().toString(), homeId, deviceId, gestureName);
+        commands.put(command.getId(), command);
+
+        submitSteps(command, steps, new ArrayList<>(steps.size()));
+        return command;
+    }
+
+    // IR 값 하나를 동기 전송 (대기 시간이 있는 매크로/배치는 dispatchAsync 사용)
+    // gestureName은 지연 시간 측정 태그 (배치 전송이면 null)
+    public String send(String gestureName, String ir) {
+        long start = System.nanoTime();
+        String result = sendIr(ir);
+        metrics.record(GesturePipelineMetrics.STAGE_ARDUINO_RTT, gestureName, System.nanoTime() - start);
+        return result;
+    }
+
+    // 남은 단계를 전송 스레드 풀에 제출 (대기열이 가득 차면 남은 단계는 실패 처리)
+    private void submitSteps(IrCommand command, List<IrStep> steps, List<String> results) {
+        try {
+            executor.execute(() -> sendSteps(command, steps, results));
+        } catch (RejectedExecutionException e) {
+            log.error("IR 전송 대기열이 가득 찼습니다: commandId={}", command.getId());
+            results.add("error");
+            finish(command, steps, results);
+        }
+    }
+
+    // 여러 IR 값을 순서대로 전송 (풀링된 keep-alive 연결 재사용)
+    // 대기 시간이 있는 단계 뒤에서는 다음 단계를 예약하고 반환, 실패한 단계 이후는 "skipped"
+    private void sendSteps(IrCommand command, List<IrStep> steps, List<String> results) {
+        while (results.size() < steps.size()) {
+            int i = results.size();
+            IrStep step = steps.get(i);
+            String result = send(command.getGestureName(), step.ir());
+            results.add(result);
+            if (!"success".equals(result)) {
+                break;
+            }
+
+            if (step.delayMs() > 0 && i < steps.size() - 1) {
+                try {
+                    scheduler.schedule(() -> submitSteps(command, steps, results),
+                            Math.min(step.delayMs(), maxStepDelayMs), TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    results.add("error");   // 종료 중
+                    break;
+                }
+            }
+        }
+        finish(command, steps, results);
+    }
+
+    private void finish(IrCommand command, List<IrStep> steps, List<String> results) {
+        while (results.size() < steps.size()) {
+            results.add("skipped");
+        }
+        complete(command, results);
+    }
+
+    private void checkBatchSize(List<IrStep> steps) {
+        if (steps.isEmpty() || steps.size() > maxBatchSteps) {
+            throw new IllegalStateException("전송할 IR 단계는 1개 이상 " + maxBatchSteps + "개 이하여야 합니다.");
+        }
+    }
+
+    // 단계별 결과를 하나의 결과로 합침 (모두 성공이면 success, 아니면 처음 실패한 결과)
+    public static String overallResult(List<String> results) {
+        return results.stream()
+                .filter(result -> !"success".equals(result))
+                .findFirst()
+                .orElse("success");
+    }
+
+    // 명령 조회 (없으면 null 반환)
+    public IrCommand findCommand(String commandId) {
+        return commands.get(commandId);
+    }
+
+    // 아두이노 서버로 IR 값을 전송하고 응답을 받는 메서드
+    private String sendIr(String irValue) {
+        try {
+            log.info("아두이노 서버에 IR 값 요청: IR 값={}", irValue); // 아두이노 서버 요청 전 로그
+
+            // 아두이노 서버에 POST 요청 전송 (서킷 브레이커 경유)
+            ResponseEntity<String> response = arduinoGateway.post("/sendIR", irValue);
+
+            // 아두이노 서버 응답 처리
+            if (response.getStatusCode() == HttpStatus.OK) {
+                // 응답 본문을 JSON으로 파싱
+                JsonNode responseBody = objectMapper.readTree(response.getBody());
+                int status = responseBody.path("status").asInt();
+                String message = responseBody.path("message").asText();
+
+                log.info("아두이노 서버 응답 성공: status={}, message={}", status, message); // 성공 응답 로그
+
+                // status가 200이면 성공으로 처리
+                return (status == 200) ? "success" : "fail";
+            } else {
+                log.error("아두이노 서버로부터 예상치 못한 응답 코드: {}", response.getStatusCode());
+                return "error";
+            }
+        } catch (ArduinoUnavailableException e) {
+            log.warn("아두이노 서버 호출 차단: {}", e.getMessage());
+            return "unavailable";
+        } catch (Exception e) {
+            log.error("아두이노 서버로 IR 전송 중 오류 발생: {}", e.getMessage());
+            return "error";
+        }
+    }
+
+    private void complete(IrCommand command, List<String> results) {
+        command.complete(switch (overallResult(results)) {
+            case "success" -> IrCommand.Status.SUCCESS;
+            case "fail" -> IrCommand.Status.FAIL;
+            case "unavailable" -> IrCommand.Status.UNAVAILABLE;
+            default -> IrCommand.Status.ERROR;
+        }, results);
+        log.info("IR 전송 완료: commandId={}, status={}", command.getId(), command.getStatus());
+        eventPublisher.publishEvent(command);   // 완료 결과 전달 (구독자에게 푸시)
+    }
+
+    // 보관 시간이 지난 완료 명령 정리
+    @Scheduled(fixedDelayString = "${app.ir-dispatch.retention-ms:60000}")
+    public void evictCompletedCommands() {
+        long expiredBefore = System.currentTimeMillis() - retentionMs;
+        commands.values().removeIf(command -> command.isDone() && command.getCompletedAt() < expiredBefore);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,82 @@
+package com.et.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+// IR 학습 요청 저장소 (correlationId -> 수신 대기 중인 요청)
+@Slf4j
+@Service
+public class IrLearningService {
+
+    // correlationId -> 대기 중인 요청
+    private final Map<String, LearningRequest> pending = new ConcurrentHashMap<>();
+
+    // correlationId 없이 수신된 IR 값은 같은 홈의 가장 오래된 요청에 전달 (기존 아두이노 펌웨어 호환)
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.ir-learning.timeout-ms:5000}")
+    private long timeoutMs;     // IR 수신 최대 대기 시간
+
+    // 학습 요청 등록: 시간이 지나면 TimeoutException으로 완료되고 저장소에서 제거됨
+    public LearningRequest start(Long homeId) {
+        String correlationId = UUID.randomUUID().toString();
+        CompletableFuture<String> irValue = new CompletableFuture<>();
+        LearningRequest request = new LearningRequest(correlationId, homeId, irValue);
+
+        pending.put(correlationId, request);
+        order.add(correlationId);
+        irValue.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((value, e) -> remove(correlationId));
+        return request;
+    }
+
+    // 수신된 IR 값을 요청에 전달, 전달된 요청 반환
+    // correlationId가 없으면 homeId가 같은 가장 오래된 요청에 전달 (다른 홈의 요청은 완료하지 않음)
+    public LearningRequest complete(String correlationId, Long homeId, String irValue) {
+        if (correlationId != null) {
+            LearningRequest request = pending.get(correlationId);
+            if (request != null && request.irValue().complete(irValue)) {
+                return request;
+            }
+        } else if (homeId != null) {
+            for (String id : order) {
+                LearningRequest request = pending.get(id);
+                if (request != null && homeId.equals(request.homeId()) && request.irValue().complete(irValue)) {
+                    return request;
+                }
+            }
+        }
+        log.warn("IR 값을 기다리는 요청이 없습니다: correlationId={}, homeId={}", correlationId, homeId);
+        return null;
+    }
+
+    // 학습 요청 취소 (아두이노 요청 실패 등)
+    public void cancel(String correlationId) {
+        LearningRequest request = pending.get(correlationId);
+        if (request != null) {
+            request.irValue().cancel(false);
+        }
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    private void remove(String correlationId) {
+        pending.remove(correlationId);
+        order.remove(correlationId);
+    }
+
+    // 학습 요청 (irValue는 수신 시 완료)
+    public record LearningRequest(String correlationId, Long homeId, CompletableFuture<String> irValue) {
+    }
+}
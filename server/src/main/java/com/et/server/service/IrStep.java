@@ -0,0 +1,5 @@
+package com.et.server.service;
+
+// 순서대로 전송할 IR 값과 전송 후 대기 시간 (ms)
+public record IrStep(String ir, long delayMs) {
+}
@@ -0,0 +1,67 @@
+package com.et.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// 자주 요청되는 작은 사진 파일의 메모리 캐시 (전체 용량 제한, W-TinyLFU 교체)
+// 키에 수정 시각과 크기가 포함되므로 파일이 바뀌면 새로 읽음 (이전 항목은 교체 정책으로 제거)
+// 적중/실패 지표: cache.gets{cache=media}
+@Service
+public class MediaCache {
+
+    private final Cache<Key, byte[]> cache;
+    private final long maxEntryBytes;
+
+    public MediaCache(MeterRegistry meterRegistry,
+                      @Value("${app.media.cache.max-bytes:33554432}") long maxBytes,
+                      @Value("${app.media.cache.max-entry-bytes:262144}") long maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, byte[] bytes) -> bytes.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "media");
+    }
+
+    // 캐시할 수 있는 크기면 파일 내용 반환 (캐시에 없으면 읽어서 저장), 너무 크면 null
+    public byte[] get(Path file, long size, long lastModified) throws IOException {
+        if (size > maxEntryBytes) {
+            return null;
+        }
+        try {
+            return cache.get(new Key(file, size, lastModified), key -> read(key.path()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // multipart 응답용 Resource: 작은 파일은 캐시된 바이트, 큰 파일은 파일에서 직접 전송
+    public Resource resource(Path file) throws IOException {
+        byte[] bytes = get(file, Files.size(file), Files.getLastModifiedTime(file).toMillis());
+        return bytes != null ? new ByteArrayResource(bytes) : new FileSystemResource(file);
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Key(Path path, long size, long lastModified) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.et.server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+
+// 업로드된 사진의 URL 생성 및 파일 경로 확인
+@Service
+public class MediaService {
+
+    // 사진을 제공하는 디렉토리 (사용자: photo, 기기: device, 제스처: gesture)
+    public static final Set<String> CATEGORIES = Set.of("photo", "device", "gesture");
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    @Value("${app.upload-dir}")
+    private String uploadDir;
+
+    // 사진 URL (파일명이 없으면 null), 파일명에 한글/공백이 있을 수 있으므로 경로 인코딩
+    public String photoUrl(String category, String filename) {
+        if (filename == null || filename.isEmpty()) {
+            return null;
+        }
+        return baseUrl + "/et/media/" + category + "/" + UriUtils.encodePathSegment(filename, StandardCharsets.UTF_8);
+    }
+
+    // 카테고리 디렉토리
+    public Path directory(String category) {
+        return Paths.get(uploadDir, category).toAbsolutePath().normalize();
+    }
+
+    // 카테고리와 파일명으로 파일 경로 반환 (업로드 디렉토리 밖을 가리키면 null)
+    public Path resolve(String category, String filename) {
+        if (!CATEGORIES.contains(category)) {
+            return null;
+        }
+        Path dir = directory(category);
+        Path file = dir.resolve(filename).normalize();
+        return file.getParent().equals(dir) ? file : null;
+    }
+}
@@ -34,6 +34,12 @@ public class MemberService {
     @Value("${app.ml-server-url}")
     private String ML_SERVER_URL;
 
+    @Value("${app.ml-handoff.upload-notify-path:/upload-video-url/}")
+    private String uploadNotifyPath;
+
+    @Value("${app.ml-handoff.add-notify-path:/add-video-url/}")
+    private String addNotifyPath;
+
     // 사용자 추가
     @Transactional
     public Member addMember(Long homeId, Member member) {
@@ -56,7 +62,39 @@ public class MemberService {
         return sendVideoToML(name, videoChunk, chunkIndex, totalChunks, "/add-video/");
     }
 
-    // ML 통신: 사용자 이름, 영상 전송
+    // ML 통신 (pull 모드): addMember 영상 업로드 완료 알림, ML 서버가 videoUrl에서 영상을 가져감
+    public String notifyVideoToMLUpload(String name, String videoUrl) {
+        return notifyVideoToML(name, videoUrl, uploadNotifyPath);
+    }
+
+    // ML 통신 (pull 모드): addVideo 영상 업로드 완료 알림
+    public String notifyVideoToMLAdd(String name, String videoUrl) {
+        return notifyVideoToML(name, videoUrl, addNotifyPath);
+    }
+
+    private String notifyVideoToML(String name, String videoUrl, String endpoint) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("Name", name);
+        requestBody.put("videoUrl", videoUrl);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // 실패 시 예외, 재시도는 MlForwardingService에서 처리
+        String encodedUrl = UriComponentsBuilder.fromHttpUrl(ML_SERVER_URL + endpoint)
+                .encode()
+                .toUriString();
+        ResponseEntity<String> responseEntity = restTemplate.exchange(
+                encodedUrl,
+                HttpMethod.POST,
+                new HttpEntity<>(requestBody, headers),
+                String.class
+        );
+        log.info("ML 서버 응답 상태 코드: {}", responseEntity.getStatusCode());
+        return responseEntity.getBody();
+    }
+
+    // ML 통신: 사용자 이름, 영상 전송 (ML 서버는 base64 JSON만 받음)
     private String sendVideoToML(String name, String videoChunk, Integer chunkIndex, Integer totalChunks, String endpoint) {
         // 요청 바디 구성
         Map<String, Object> requestBody = new HashMap<>();
@@ -70,25 +108,20 @@ public class MemberService {
 
         HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, headers);
 
-        try {
-            // ML 서버로 POST 요청 전송
-            String encodedUrl = UriComponentsBuilder.fromHttpUrl(ML_SERVER_URL + endpoint)
-                    .encode()
-                    .toUriString();
-            ResponseEntity<String> responseEntity = restTemplate.exchange(
-                    encodedUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    String.class
-            );
-
-            // 응답 처리
-            log.info("ML 서버 응답 상태 코드: {}", responseEntity.getStatusCode());
-            return responseEntity.getBody();
-        } catch (Exception e) {
-            log.error("ML 서버와의 통신 중 오류 발생", e);
-            return null;
-        }
+        // ML 서버로 POST 요청 전송 (실패 시 예외, 재시도는 MlForwardingService에서 처리)
+        String encodedUrl = UriComponentsBuilder.fromHttpUrl(ML_SERVER_URL + endpoint)
+                .encode()
+                .toUriString();
+        ResponseEntity<String> responseEntity = restTemplate.exchange(
+                encodedUrl,
+                HttpMethod.POST,
+                requestEntity,
+                String.class
+        );
+
+        // 응답 처리
+        log.info("ML 서버 응답 상태 코드: {}", responseEntity.getStatusCode());
+        return responseEntity.getBody();
     }
 
     // 사용자 수정
@@ -133,4 +166,9 @@ public class MemberService {
     public List<Member> findAllMembers(Long homeId) {
         return memberRepository.findAll(homeId);
     }
+
+    // 사용자 페이지 조회 (afterId가 없으면 처음부터)
+    public List<Member> findMembersPage(Long homeId, Long afterId, int limit) {
+        return memberRepository.findPage(homeId, afterId == null ? 0L : afterId, limit);
+    }
 }
@@ -0,0 +1,261 @@
+package com.et.server.service;
+
+import com.et.server.service.VideoUploadService.StoredChunk;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 영상 조각을 ML 서버로 비동기 전송 (업로드 요청과 분리)
+// 업로드마다 대기열을 두고 조각 번호 순서대로 전송하며, 실패하면 재시도
+// 대기열에는 조각의 파일 위치만 두고, 전송할 때 업로드 파일에서 읽음 (조각 데이터를 메모리에 쌓지 않음)
+// ML 서버는 조각의 base64 문자열을 이어 붙여 디코딩하므로, 3바이트 단위로 인코딩하고 남는 바이트는 다음 조각으로 넘김
+@Slf4j
+@Service
+public class MlForwardingService {
+
+    // 업로드 키(uploadKey 또는 uploadId) -> 전송 대기열
+    private final Map<String, ForwardQueue> queues = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final VideoUploadService videoUploadService;
+
+    @Value("${app.ml-forward.queue-capacity:16}")
+    private int queueCapacity;      // 업로드당 전송 대기 조각 수 한도, 초과 시 429
+
+    @Value("${app.ml-forward.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.ml-forward.retry-backoff-ms:500}")
+    private long retryBackoffMs;    // 재시도 대기 시간 (시도마다 증가)
+
+    @Value("${app.upload.session-ttl-ms:600000}")
+    private long idleTimeoutMs;     // 이 시간 동안 조각이 오지 않은 대기열 정리
+
+    public MlForwardingService(VideoUploadService videoUploadService,
+                               @Value("${app.ml-forward.threads:4}") int threads) {
+        this.videoUploadService = videoUploadService;
+        // ML 전송 전용 스레드 풀 (업로드마다 한 번에 하나의 작업만 실행)
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ml-forward-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // 조각을 저장하기 전에 호출 (이미 받은 조각을 다시 보낸 경우도 포함)
+    // 재시도 후에도 실패한 전송은 클라이언트가 조각을 다시 보내면 실패한 조각부터 재개 (조각은 업로드 파일에 남아 있음)
+    // ML 전송이 밀려 있으면 거부 (클라이언트가 같은 조각을 다시 보냄), 다음 순서의 조각은 대기열을 비우는 데 필요하므로 항상 받음
+    public void checkCapacity(String uploadKey, int chunkIndex) {
+        ForwardQueue queue = queues.get(uploadKey);
+        if (queue == null) {
+            return;
+        }
+        boolean resume = false;
+        synchronized (queue) {
+            if (queue.failed && !queue.removed) {
+                queue.failed = false;
+                queue.draining = true;
+                queue.lastActivity = System.currentTimeMillis();
+                resume = true;
+            }
+            if (!resume && chunkIndex != queue.nextIndex && queue.pending.size() >= queueCapacity) {
+                throw new UploadLimitExceededException("ML 서버 처리가 밀려 있습니다. 잠시 후 다시 시도하세요.");
+            }
+        }
+        if (resume) {
+            log.info("ML 서버 전송 재개: uploadKey={}, chunkIndex={}", uploadKey, queue.nextIndex);
+            executor.execute(() -> drain(uploadKey, queue));
+        }
+    }
+
+    // 저장된 조각의 ML 전송을 예약하고 바로 반환 (조각 데이터는 전송할 때 업로드 파일에서 읽음)
+    // 0번 조각이 다시 오면 처음부터 다시 보내는 업로드로 보고 대기열 초기화
+    public void submit(String uploadKey, int chunkIndex, int totalChunks, StoredChunk chunk, ChunkSender sender) {
+        while (true) {
+            ForwardQueue queue = queues.computeIfAbsent(uploadKey, key -> new ForwardQueue());
+            boolean startDrain;
+            synchronized (queue) {
+                if (queue.removed) {
+                    continue;   // 정리된 대기열이면 새로 생성
+                }
+                if (chunkIndex == 0 && (queue.nextIndex > 0 || queue.failed)) {
+                    queue.pending.clear();
+                    queue.nextIndex = 0;
+                    queue.failed = false;
+                    queue.carry = EMPTY;
+                    queue.generation++;
+                }
+                queue.totalChunks = totalChunks;
+                queue.sender = sender;
+                queue.pending.put(chunkIndex, chunk);
+                queue.lastActivity = System.currentTimeMillis();
+                startDrain = !queue.draining && !queue.failed;
+                if (startDrain) {
+                    queue.draining = true;
+                }
+            }
+            if (startDrain) {
+                executor.execute(() -> drain(uploadKey, queue));
+            }
+            return;
+        }
+    }
+
+    // 완료 알림 등 대기열이 필요 없는 전송 (재시도 포함)
+    public void sendAsync(String key, Callable<String> send) {
+        executor.execute(() -> sendWithRetry(key, 0, send));
+    }
+
+    // 다음 순서의 조각이 있는 동안 전송
+    private void drain(String uploadKey, ForwardQueue queue) {
+        while (true) {
+            int chunkIndex;
+            int generation;
+            boolean last;
+            byte[] carry;
+            StoredChunk chunk;
+            ChunkSender sender;
+            synchronized (queue) {
+                chunk = queue.failed ? null : queue.pending.remove(queue.nextIndex);
+                if (chunk == null) {
+                    queue.draining = false;
+                    if (queue.nextIndex >= queue.totalChunks) {
+                        queue.removed = true;
+                        queues.remove(uploadKey, queue);
+                    }
+                    return;
+                }
+                chunkIndex = queue.nextIndex;
+                generation = queue.generation;
+                last = chunkIndex == queue.totalChunks - 1;
+                carry = queue.carry;
+                sender = queue.sender;
+            }
+
+            EncodedChunk encoded = read(uploadKey, chunkIndex, chunk, carry, last);
+            boolean sent = encoded != null
+                    && sendWithRetry(uploadKey, chunkIndex, () -> sender.send(chunkIndex, encoded.base64()));
+
+            synchronized (queue) {
+                if (generation != queue.generation) {
+                    continue;   // 전송 중에 업로드가 처음부터 다시 시작됨
+                }
+                if (sent) {
+                    queue.nextIndex = chunkIndex + 1;
+                    queue.carry = encoded.carry();
+                } else {
+                    // 실패한 조각을 남겨 두고 멈춤 (checkCapacity에서 재개)
+                    queue.pending.put(chunkIndex, chunk);
+                    queue.failed = true;
+                }
+            }
+        }
+    }
+
+    // 업로드 파일에서 조각을 읽어 인코딩 (읽기 실패는 전송 실패로 처리)
+    private EncodedChunk read(String uploadKey, int chunkIndex, StoredChunk chunk, byte[] carry, boolean last) {
+        try {
+            return encode(carry, videoUploadService.readChunk(chunk), last);
+        } catch (IOException | IllegalStateException e) {
+            log.error("ML 전송할 조각 읽기 실패: uploadKey={}, chunkIndex={}", uploadKey, chunkIndex, e);
+            return null;
+        }
+    }
+
+    // 앞 조각에서 남은 바이트를 붙여 3바이트 단위까지만 인코딩 (중간 조각에 '=' 패딩이 들어가지 않게 함)
+    // 남는 0~2바이트는 다음 조각으로 넘기고, 마지막 조각에서만 전부 인코딩
+    static EncodedChunk encode(byte[] carry, byte[] chunk, boolean last) {
+        byte[] data = chunk;
+        if (carry.length > 0) {
+            data = new byte[carry.length + chunk.length];
+            System.arraycopy(carry, 0, data, 0, carry.length);
+            System.arraycopy(chunk, 0, data, carry.length, chunk.length);
+        }
+        int encodable = last ? data.length : data.length - data.length % 3;
+        byte[] head = encodable == data.length ? data : Arrays.copyOf(data, encodable);
+        byte[] rest = encodable == data.length ? EMPTY : Arrays.copyOfRange(data, encodable, data.length);
+        return new EncodedChunk(Base64.getEncoder().encodeToString(head), rest);
+    }
+
+    private boolean sendWithRetry(String uploadKey, int chunkIndex, Callable<String> send) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                String response = send.call();
+                log.info("ML 서버 응답: uploadKey={}, chunkIndex={}, response={}", uploadKey, chunkIndex, response);
+                return true;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.error("ML 서버 전송 실패: uploadKey={}, chunkIndex={}", uploadKey, chunkIndex, e);
+                    return false;
+                }
+                log.warn("ML 서버 전송 재시도 ({}/{}): uploadKey={}, chunkIndex={}, {}",
+                        attempt, maxAttempts, uploadKey, chunkIndex, e.getMessage());
+                try {
+                    Thread.sleep(retryBackoffMs * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    // 오래된(중단된) 업로드의 대기열 정리
+    @Scheduled(fixedDelayString = "${app.upload.sweep-interval-ms:60000}")
+    public void evictIdleQueues() {
+        long expiredBefore = System.currentTimeMillis() - idleTimeoutMs;
+        queues.forEach((uploadKey, queue) -> {
+            synchronized (queue) {
+                if (queue.draining || queue.lastActivity >= expiredBefore) {
+                    return;
+                }
+                queue.removed = true;
+                queue.pending.clear();
+            }
+            queues.remove(uploadKey, queue);
+            log.info("ML 전송 대기열 정리: uploadKey={}", uploadKey);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // 조각 하나를 ML 서버로 전송 (videoChunk: 이어 붙이면 영상 전체가 되는 base64 문자열)
+    @FunctionalInterface
+    public interface ChunkSender {
+        String send(int chunkIndex, String videoChunk) throws Exception;
+    }
+
+    record EncodedChunk(String base64, byte[] carry) {
+    }
+
+    // 업로드별 전송 대기열 (queue로 동기화)
+    private static final byte[] EMPTY = new byte[0];
+
+    private static class ForwardQueue {
+        private final TreeMap<Integer, StoredChunk> pending = new TreeMap<>();    // 조각 번호 -> 저장된 조각 위치
+        private ChunkSender sender;
+        private byte[] carry = EMPTY;   // 이전 조각에서 인코딩하지 않고 남긴 0~2바이트
+        private int nextIndex;          // 다음으로 전송할 조각 번호
+        private int totalChunks;
+        private int generation;         // 처음부터 다시 시작할 때마다 증가
+        private boolean draining;       // 전송 작업 실행 중
+        private boolean failed;         // 재시도 후에도 실패
+        private boolean removed;
+        private long lastActivity = System.currentTimeMillis();
+    }
+}
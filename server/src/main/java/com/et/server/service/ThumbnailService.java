@@ -0,0 +1,206 @@
+package com.et.server.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// 사진 썸네일 생성 (크기별, 백그라운드 스레드에서 ImageIO/Graphics2D로 축소)
+// 썸네일은 {카테고리}/thumb/{크기}/{원본 파일명}에 원본과 같은 형식으로 저장
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    private final MediaService mediaService;
+    private final ThreadPoolExecutor executor;
+    private final int[] sizes;  // 큰 크기부터 정렬 (작은 썸네일은 바로 위 크기 썸네일에서 축소)
+
+    // 생성 중인 사진 (같은 사진을 중복 생성하지 않도록)
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailService(MediaService mediaService,
+                            @Value("${app.thumbnail.sizes:64,128,256}") int[] sizes,
+                            @Value("${app.thumbnail.threads:2}") int threads) {
+        this.mediaService = mediaService;
+        this.sizes = Arrays.stream(sizes).boxed().sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+
+        // 썸네일 생성 전용 스레드 풀 (요청 스레드와 분리)
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    // 썸네일 생성 예약 (업로드 요청은 기다리지 않음)
+    public void generateAsync(String category, String filename) {
+        String key = category + "/" + filename;
+        if (!inProgress.add(key)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                generate(category, filename);
+            } catch (Exception e) {
+                log.error("썸네일 생성 실패: {}", key, e);
+            } finally {
+                inProgress.remove(key);
+            }
+        });
+    }
+
+    // 요청한 크기 이상인 가장 작은 썸네일 경로 반환
+    // size가 없거나 가장 큰 썸네일보다 크면 원본, 썸네일이 아직 없으면 원본을 반환하고 생성 예약
+    // 잘못된 카테고리/파일명이면 null
+    public Path resolve(String category, String filename, Integer size) {
+        Path original = mediaService.resolve(category, filename);
+        if (original == null || size == null) {
+            return original;
+        }
+        Integer thumbnailSize = null;
+        for (int candidate : sizes) {
+            if (candidate >= size) {
+                thumbnailSize = candidate;
+            }
+        }
+        if (thumbnailSize == null) {
+            return original;
+        }
+        Path thumbnail = thumbnailPath(original, thumbnailSize);
+        if (Files.isRegularFile(thumbnail)) {
+            return thumbnail;
+        }
+        if (Files.isRegularFile(original)) {
+            generateAsync(category, filename);
+        }
+        return original;
+    }
+
+    // 기존 사진 중 썸네일이 없는 것을 모두 생성 예약, 예약한 사진 수 반환
+    public int backfill() {
+        int count = 0;
+        for (String category : MediaService.CATEGORIES) {
+            Path dir = mediaService.directory(category);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.filter(Files::isRegularFile).toList()) {
+                    if (Arrays.stream(sizes).anyMatch(size -> !Files.exists(thumbnailPath(file, size)))) {
+                        generateAsync(category, file.getFileName().toString());
+                        count++;
+                    }
+                }
+            } catch (IOException e) {
+                log.error("썸네일 백필 중 디렉토리 조회 실패: {}", dir, e);
+            }
+        }
+        log.info("썸네일 백필 예약: {}개", count);
+        return count;
+    }
+
+    private void generate(String category, String filename) throws IOException {
+        Path original = mediaService.resolve(category, filename);
+        if (original == null || !Files.isRegularFile(original)) {
+            return;
+        }
+        String format = imageFormat(filename);
+        BufferedImage source = format == null ? null : ImageIO.read(original.toFile());
+        if (source == null) {
+            log.warn("썸네일을 만들 수 없는 파일: {}/{}", category, filename);
+            return;
+        }
+
+        boolean alpha = !format.equals("jpg") && source.getColorModel().hasAlpha();
+        for (int size : sizes) {
+            source = scale(source, size, alpha);
+            write(source, format, thumbnailPath(original, size));
+        }
+        log.info("썸네일 생성 완료: {}/{}", category, filename);
+    }
+
+    // 긴 변이 maxSize 이하가 되도록 축소 (한 번에 크게 줄이면 품질이 떨어지므로 절반씩 줄임)
+    private BufferedImage scale(BufferedImage source, int maxSize, boolean alpha) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!alpha) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    // 임시 파일에 쓴 뒤 이동 (생성 중인 썸네일이 응답되지 않도록)
+    private void write(BufferedImage image, String format, Path dest) throws IOException {
+        Files.createDirectories(dest.getParent());
+        Path temp = dest.resolveSibling(UUID.randomUUID() + ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                log.warn("썸네일 형식을 지원하지 않습니다: {}", format);
+                return;
+            }
+            try {
+                Files.move(temp, dest, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, dest, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path thumbnailPath(Path original, int size) {
+        return original.getParent().resolve("thumb").resolve(String.valueOf(size)).resolve(original.getFileName());
+    }
+
+    // 확장자로 ImageIO 형식 결정 (jpg/png/gif/bmp 외에는 null)
+    private String imageFormat(String filename) {
+        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
+        return switch (extension) {
+            case "jpg", "jpeg" -> "jpg";
+            case "png", "gif", "bmp" -> extension;
+            default -> null;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
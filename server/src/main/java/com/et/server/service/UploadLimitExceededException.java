@@ -0,0 +1,9 @@
+package com.et.server.service;
+
+// 진행 중인 업로드 용량 한도 초과 (429 Too Many Requests)
+public class UploadLimitExceededException extends RuntimeException {
+
+    public UploadLimitExceededException(String message) {
+        super(message);
+    }
+}
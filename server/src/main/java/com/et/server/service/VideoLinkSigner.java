@@ -0,0 +1,64 @@
+package com.et.server.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// ML 서버가 저장된 영상을 직접 가져갈 수 있는 서명된 URL 생성/검증 (HMAC-SHA256, 만료 시간 포함)
+@Component
+public class VideoLinkSigner {
+
+    private final byte[] secret;
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    @Value("${app.ml-handoff.url-ttl-ms:3600000}")
+    private long urlTtlMs;  // 서명된 URL 유효 시간
+
+    // secret이 비어 있으면 임의로 생성 (재시작하면 이전 URL은 무효)
+    public VideoLinkSigner(@Value("${app.ml-handoff.secret:}") String secret) {
+        if (secret.isEmpty()) {
+            this.secret = new byte[32];
+            new SecureRandom().nextBytes(this.secret);
+        } else {
+            this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    // 영상 파일명에 대한 서명된 URL
+    public String sign(String filename) {
+        long expires = System.currentTimeMillis() + urlTtlMs;
+        return baseUrl + "/et/member/video?file=" + URLEncoder.encode(filename, StandardCharsets.UTF_8)
+                + "&expires=" + expires
+                + "&signature=" + signature(filename, expires);
+    }
+
+    // 서명이 맞고 만료되지 않았는지 확인
+    public boolean verify(String filename, long expires, String signature) {
+        if (expires < System.currentTimeMillis()) {
+            return false;
+        }
+        byte[] expected = signature(filename, expires).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String signature(String filename, long expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] digest = mac.doFinal((filename + ":" + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("URL 서명에 실패했습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.et.server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 영상 조각 업로드: 조각마다 디코딩하여 임시 파일에 바로 기록 (메모리 사용량은 조각 크기로 제한)
+// 오래된 업로드는 주기적으로 정리하고, 진행 중인 업로드 전체 용량을 제한
+// 용량은 기록하기 전에 예약 (uploadId 업로드는 시작할 때 전체 크기, 기존 방식은 조각마다), 완료/만료 시 반환
+// uploadId로 시작한 업로드는 조각을 순서와 상관없이 제 위치에 기록하므로 중단 후 이어서 보낼 수 있음
+@Slf4j
+@Service
+public class VideoUploadService {
+
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    // uploadKey -> 진행 중인 업로드
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    // uploadKey -> 최근에 완료된 업로드 (마지막 조각 재전송, 상태 조회에 응답하기 위해 잠시 보관)
+    private final Map<String, UploadSession> completed = new ConcurrentHashMap<>();
+
+    // 진행 중인 업로드가 예약한 전체 바이트 수
+    private final AtomicLong inFlightBytes = new AtomicLong();
+
+    @Value("${app.upload-dir}")
+    private String uploadDir;
+
+    @Value("${app.upload.session-ttl-ms:600000}")
+    private long sessionTtlMs;      // 이 시간 동안 조각이 오지 않으면 업로드 폐기
+
+    @Value("${app.upload.max-in-flight-bytes:524288000}")
+    private long maxInFlightBytes;  // 진행 중인 업로드 전체 용량 한도, 초과 시 새 업로드/조각 거부
+
+    @Value("${app.upload.max-chunk-bytes:52428800}")
+    private long maxChunkBytes;     // 기존 방식 바이너리 조각 하나의 최대 크기
+
+    @Value("${app.upload.max-video-bytes:209715200}")
+    private long maxVideoBytes;     // 영상 하나의 최대 크기
+
+    @Value("${app.upload.completed-retention-ms:600000}")
+    private long completedRetentionMs;  // 완료된 업로드 정보 보관 시간
+
+    // 재개 가능한 업로드 시작: 조각 크기를 고정하여 조각마다 기록 위치(index * chunkSize)를 정함
+    // owner: 업로드 대상 ("addMember:homeId" / "addVideo:memberId"), 반환값: uploadId
+    public String begin(String owner, int totalChunks, long chunkSize) {
+        if (totalChunks <= 0 || chunkSize <= 0) {
+            throw new IllegalStateException("조각 정보가 잘못되었습니다.");
+        }
+        // totalChunks * chunkSize가 한도를 넘으면 거부 (곱셈 오버플로 없이 비교)
+        if (chunkSize > Math.min(maxVideoBytes, maxInFlightBytes) / totalChunks) {
+            throw new IllegalStateException("영상 크기가 너무 큽니다. 최대 " + maxVideoBytes + "바이트까지 업로드할 수 있습니다.");
+        }
+        String uploadId = UUID.randomUUID().toString();
+        UploadSession session = new UploadSession(newTempFile());
+        reserve(session, totalChunks * chunkSize);  // 선언한 전체 크기를 미리 예약
+        session.owner = owner;
+        session.totalChunks = totalChunks;
+        session.chunkSize = chunkSize;
+        session.received = new BitSet(totalChunks);
+        sessions.put(uploadId, session);
+        log.info("업로드 시작: uploadId={}, owner={}, totalChunks={}, chunkSize={}", uploadId, owner, totalChunks, chunkSize);
+        return uploadId;
+    }
+
+    // 재개 가능한 업로드: 조각을 제 위치에 기록 (순서 무관, 이미 받은 조각은 무시)
+    // 이미 완료된 업로드의 조각(응답을 받지 못해 다시 보낸 마지막 조각 등)도 이미 받은 조각으로 처리
+    // 요청 본문을 메모리에 모으지 않고 파일로 바로 복사 (chunkSize를 넘는 부분은 기록하지 않음)
+    // contentLength: 본문 크기 (모르면 -1), chunkSize보다 크면 읽기 전에 거부
+    public ChunkResult writeChunk(String uploadId, String owner, int chunkIndex,
+                                  InputStream in, long contentLength) throws IOException {
+        UploadSession session = findResumable(uploadId);
+        if (session == null || !session.owner.equals(owner)) {
+            throw new IllegalStateException("진행 중인 업로드가 없습니다.");
+        }
+        synchronized (session) {
+            if (chunkIndex < 0 || chunkIndex >= session.totalChunks) {
+                throw new IllegalStateException("조각 번호가 잘못되었습니다: " + chunkIndex);
+            }
+            if (session.completedFile != null) {
+                return ChunkResult.alreadyReceived(session.receivedChunks, session.totalChunks);
+            }
+            checkOpen(session);
+            if (contentLength > session.chunkSize) {
+                throw new IllegalStateException("조각 크기가 잘못되었습니다: " + contentLength);
+            }
+            if (session.received.get(chunkIndex)) {
+                session.lastActivity = System.currentTimeMillis();
+                return ChunkResult.alreadyReceived(session.receivedChunks, session.totalChunks);
+            }
+
+            boolean last = chunkIndex == session.totalChunks - 1;
+            long offset = chunkIndex * session.chunkSize;
+            long length;
+            try (FileChannel channel = FileChannel.open(session.tempFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                length = transfer(in, channel, offset, session.chunkSize);
+                // 마지막 조각만 chunkSize보다 작을 수 있음
+                if (length == 0 || (!last && length != session.chunkSize)) {
+                    throw new IllegalStateException("조각 크기가 잘못되었습니다: " + length);
+                }
+                if (last) {
+                    channel.truncate(offset + length);  // 앞서 실패한 마지막 조각이 더 길게 기록한 부분 제거
+                }
+            }
+            session.received.set(chunkIndex);
+            return recordWrite(session, offset, (int) length);
+        }
+    }
+
+    // 재개 가능한 업로드의 진행 상태 (받지 못한 조각 목록 포함)
+    public UploadStatus status(String uploadId) {
+        UploadSession session = findResumable(uploadId);
+        if (session == null) {
+            throw new IllegalStateException("진행 중인 업로드가 없습니다.");
+        }
+        synchronized (session) {
+            List<Integer> missing = new ArrayList<>();
+            for (int i = session.received.nextClearBit(0); i < session.totalChunks; i = session.received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            return new UploadStatus(uploadId, session.totalChunks, session.receivedChunks, missing,
+                    session.completedFile != null);
+        }
+    }
+
+    // 기존 방식 base64 조각: 디코딩하여 임시 파일 끝에 이어 씀
+    public ChunkResult appendBase64Chunk(String uploadKey, int chunkIndex, int totalChunks, String chunk) throws IOException {
+        UploadSession session = openOrGet(uploadKey);
+        synchronized (session) {
+            checkOpen(session);
+            if (!checkOrder(session, chunkIndex)) {
+                return ChunkResult.alreadyReceived(session.receivedChunks, totalChunks);
+            }
+
+            // 4글자 단위로만 디코딩 가능하므로 남는 글자는 다음 조각과 합쳐서 디코딩
+            String base64 = session.carry + chunk;
+            int usable = base64.length() - base64.length() % 4;
+            session.carry = base64.substring(usable);
+
+            byte[] bytes = Base64.getDecoder().decode(base64.substring(0, usable));
+            return append(session, totalChunks, bytes);
+        }
+    }
+
+    // 기존 방식 바이너리 조각: 요청 본문을 임시 파일 끝에 바로 복사
+    // contentLength: 본문 크기 (모르면 -1), 조각 크기 한도보다 크면 읽기 전에 거부
+    public ChunkResult appendChunk(String uploadKey, int chunkIndex, int totalChunks,
+                                   InputStream in, long contentLength) throws IOException {
+        UploadSession session = openOrGet(uploadKey);
+        synchronized (session) {
+            checkOpen(session);
+            if (!checkOrder(session, chunkIndex)) {
+                return ChunkResult.alreadyReceived(session.receivedChunks, totalChunks);
+            }
+            if (!session.carry.isEmpty()) {
+                throw new IllegalStateException("base64 조각과 바이너리 조각을 섞어서 업로드할 수 없습니다.");
+            }
+            long maxBytes = Math.min(maxChunkBytes, maxVideoBytes - session.bytes);
+            if (contentLength > maxBytes) {
+                throw new IllegalStateException("조각 크기가 너무 큽니다: " + contentLength);
+            }
+
+            // 본문 크기를 모르면 최대 크기를 예약하고, 기록한 뒤 남는 만큼 반환
+            long reservation = contentLength >= 0 ? contentLength : maxBytes;
+            reserve(session, reservation);
+            long offset = session.bytes;
+            long length;
+            try (FileChannel channel = FileChannel.open(session.tempFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                try {
+                    length = transfer(in, channel, offset, reservation);
+                } catch (IOException | RuntimeException e) {
+                    channel.truncate(offset);   // 일부만 기록된 조각 제거
+                    unreserve(session, reservation);
+                    throw e;
+                }
+            }
+            unreserve(session, reservation - length);
+            if (length == 0) {
+                throw new IllegalStateException("조각 정보가 잘못되었습니다.");
+            }
+            session.totalChunks = totalChunks;
+            return recordWrite(session, offset, (int) length);
+        }
+    }
+
+    // 저장된 조각 읽기 (ML 서버 전송용): 진행 중이면 임시 파일, 완료되었으면 옮겨진 영상 파일에서 읽음
+    public byte[] readChunk(StoredChunk stored) throws IOException {
+        UploadSession session = stored.session;
+        synchronized (session) {
+            if (session.closed && session.completedFile == null) {
+                throw new IllegalStateException("업로드가 만료되었습니다.");
+            }
+            Path file = session.completedFile != null ? session.completedFile : session.tempFile;
+            byte[] chunk = new byte[stored.length];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, stored.offset + buffer.position()) < 0) {
+                        throw new IOException("저장된 조각이 파일 끝을 넘습니다: offset=" + stored.offset + ", length=" + stored.length);
+                    }
+                }
+            }
+            return chunk;
+        }
+    }
+
+    // 업로드 완료: 임시 파일을 dest로 원자적으로 이동
+    // 완료 표시를 남긴 뒤 진행 중 목록에서 제거 (그 사이에 온 조각은 이미 받은 조각으로 처리됨)
+    public void complete(String uploadKey, Path dest) throws IOException {
+        UploadSession session = sessions.get(uploadKey);
+        if (session == null) {
+            throw new IllegalStateException("진행 중인 업로드가 없습니다.");
+        }
+        synchronized (session) {
+            checkOpen(session);
+            session.closed = true;
+            release(session);
+            if (!session.carry.isEmpty()
+                    || (session.received != null && session.receivedChunks != session.totalChunks)) {
+                sessions.remove(uploadKey, session);
+                Files.deleteIfExists(session.tempFile);
+                throw new IllegalStateException("영상 데이터가 올바르지 않습니다.");
+            }
+            Files.createDirectories(dest.getParent());
+            try {
+                Files.move(session.tempFile, dest, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(session.tempFile, dest);
+            } catch (IOException e) {
+                sessions.remove(uploadKey, session);
+                Files.deleteIfExists(session.tempFile);
+                throw e;
+            }
+            session.completedFile = dest;
+            session.lastActivity = System.currentTimeMillis();
+            completed.put(uploadKey, session);
+        }
+        sessions.remove(uploadKey, session);
+        log.info("영상 업로드 완료: uploadKey={}, file={}", uploadKey, dest.getFileName());
+    }
+
+    // 오래된(중단된) 업로드 정리: 세션 제거 및 임시 파일 삭제
+    @Scheduled(fixedDelayString = "${app.upload.sweep-interval-ms:60000}")
+    public void evictAbandonedSessions() {
+        long expiredBefore = System.currentTimeMillis() - sessionTtlMs;
+        sessions.forEach((uploadKey, session) -> {
+            synchronized (session) {
+                if (session.closed || session.lastActivity >= expiredBefore) {
+                    return;
+                }
+                session.closed = true;
+                release(session);
+                try {
+                    Files.deleteIfExists(session.tempFile);
+                } catch (IOException e) {
+                    log.warn("임시 업로드 파일 삭제 실패: {}", session.tempFile, e);
+                }
+            }
+            sessions.remove(uploadKey, session);
+            log.info("중단된 업로드 정리: uploadKey={}, bytes={}", uploadKey, session.bytes);
+        });
+
+        long completedBefore = System.currentTimeMillis() - completedRetentionMs;
+        completed.values().removeIf(session -> session.lastActivity < completedBefore);
+    }
+
+    // 재개 가능한 업로드 조회 (진행 중이거나 최근에 완료된 업로드, 없으면 null)
+    private UploadSession findResumable(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            session = completed.get(uploadId);
+        }
+        return session != null && session.received != null ? session : null;
+    }
+
+    private UploadSession openOrGet(String uploadKey) {
+        return sessions.computeIfAbsent(uploadKey, key -> openSession());
+    }
+
+    private void checkOpen(UploadSession session) {
+        if (session.closed) {
+            throw new IllegalStateException("업로드 시간이 초과되었습니다. 처음부터 다시 업로드하세요.");
+        }
+    }
+
+    // 기존 방식은 순서대로만 받음: 다음 조각이면 true, 이미 받은 조각이면 false (무시)
+    // 0번 조각이 다시 오면 클라이언트가 처음부터 다시 보내는 것으로 보고 초기화
+    private boolean checkOrder(UploadSession session, int chunkIndex) throws IOException {
+        if (session.received != null) {
+            throw new IllegalStateException("uploadId로 시작한 업로드입니다.");
+        }
+        if (chunkIndex == 0 && session.receivedChunks > 0) {
+            try (FileChannel channel = FileChannel.open(session.tempFile, StandardOpenOption.WRITE)) {
+                channel.truncate(0);
+            }
+            release(session);
+            session.bytes = 0;
+            session.carry = "";
+            session.receivedChunks = 0;
+        }
+        if (chunkIndex < session.receivedChunks) {
+            log.info("이미 받은 조각 무시: chunkIndex={}", chunkIndex);
+            return false;
+        }
+        if (chunkIndex > session.receivedChunks) {
+            throw new IllegalStateException("조각 순서가 잘못되었습니다. 다음 조각 번호: " + session.receivedChunks);
+        }
+        return true;
+    }
+
+    // 임시 파일 끝에 기록 (session 동기화 안에서 호출)
+    private ChunkResult append(UploadSession session, int totalChunks, byte[] bytes) throws IOException {
+        long offset = session.bytes;
+        if (session.bytes + bytes.length > maxVideoBytes) {
+            throw new IllegalStateException("영상 크기가 너무 큽니다. 최대 " + maxVideoBytes + "바이트까지 업로드할 수 있습니다.");
+        }
+        reserve(session, bytes.length);
+        try (FileChannel channel = FileChannel.open(session.tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException | RuntimeException e) {
+            unreserve(session, bytes.length);
+            throw e;
+        }
+        session.totalChunks = totalChunks;
+        return recordWrite(session, offset, bytes.length);
+    }
+
+    // 스트림을 position부터 기록하고 기록한 바이트 수 반환 (maxBytes를 넘으면 그 이상 기록하지 않고 거부)
+    private long transfer(InputStream in, FileChannel channel, long position, long maxBytes) throws IOException {
+        byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+        long written = 0;
+        while (true) {
+            int limit = (int) Math.min(buffer.length, maxBytes - written);
+            if (limit == 0) {
+                if (in.read() != -1) {
+                    throw new IllegalStateException("조각 크기가 너무 큽니다. 최대 " + maxBytes + "바이트");
+                }
+                return written;
+            }
+            int read = in.read(buffer, 0, limit);
+            if (read < 0) {
+                return written;
+            }
+            ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+            while (data.hasRemaining()) {
+                position += channel.write(data, position);
+            }
+            written += read;
+        }
+    }
+
+    private ChunkResult recordWrite(UploadSession session, long offset, int length) {
+        session.bytes += length;
+        session.lastActivity = System.currentTimeMillis();
+        session.receivedChunks++;
+        return new ChunkResult(session.receivedChunks, session.totalChunks, false, new StoredChunk(session, offset, length));
+    }
+
+    // 진행 중인 업로드 전체 용량에서 bytes만큼 예약 (한도를 넘으면 거부)
+    private void reserve(UploadSession session, long bytes) {
+        inFlightBytes.updateAndGet(current -> {
+            if (current + bytes > maxInFlightBytes) {
+                throw new UploadLimitExceededException("진행 중인 업로드가 많습니다. 잠시 후 다시 시도하세요.");
+            }
+            return current + bytes;
+        });
+        session.reserved += bytes;
+    }
+
+    private void unreserve(UploadSession session, long bytes) {
+        inFlightBytes.addAndGet(-bytes);
+        session.reserved -= bytes;
+    }
+
+    // 업로드가 예약한 용량 전부 반환 (완료, 만료, 처음부터 다시 시작)
+    private void release(UploadSession session) {
+        unreserve(session, session.reserved);
+    }
+
+    // 기존 방식 업로드 시작 (진행 중인 업로드 용량이 한도에 이르렀으면 거부)
+    private UploadSession openSession() {
+        if (inFlightBytes.get() >= maxInFlightBytes) {
+            throw new UploadLimitExceededException("진행 중인 업로드가 많습니다. 잠시 후 다시 시도하세요.");
+        }
+        return new UploadSession(newTempFile());
+    }
+
+    // 임시 파일은 최종 경로와 같은 파일 시스템에 생성 (원자적 이동)
+    private Path newTempFile() {
+        try {
+            Path tempDir = Paths.get(uploadDir, "video", "tmp");
+            Files.createDirectories(tempDir);
+            return tempDir.resolve(UUID.randomUUID() + ".part");
+        } catch (IOException e) {
+            throw new IllegalStateException("임시 업로드 디렉토리를 생성할 수 없습니다.", e);
+        }
+    }
+
+    // 조각 처리 결과 (duplicate: 이미 받은 조각이라 무시됨, stored: 이 조각을 기록한 위치, 무시된 조각은 null)
+    public record ChunkResult(int receivedChunks, int totalChunks, boolean duplicate, StoredChunk stored) {
+
+        static ChunkResult alreadyReceived(int receivedChunks, int totalChunks) {
+            return new ChunkResult(receivedChunks, totalChunks, true, null);
+        }
+
+        // 이 조각으로 모든 조각을 받았는지 여부
+        public boolean isComplete() {
+            return !duplicate && receivedChunks == totalChunks;
+        }
+    }
+
+    // completed: 모든 조각을 받아 영상 저장까지 끝남
+    public record UploadStatus(String uploadId, int totalChunks, int receivedChunks, List<Integer> missingChunks,
+                               boolean completed) {
+    }
+
+    // 임시 파일에 기록한 조각의 위치 (ML 서버로 보낼 때 readChunk로 다시 읽음)
+    // 업로드를 키가 아닌 세션으로 가리키므로 같은 uploadKey로 새 업로드가 시작되어도 원래 파일을 읽음
+    public static final class StoredChunk {
+        private final UploadSession session;
+        private final long offset;
+        private final int length;
+
+        private StoredChunk(UploadSession session, long offset, int length) {
+            this.session = session;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    // 진행 중인 업로드 (session으로 동기화)
+    private static class UploadSession {
+        private final Path tempFile;
+        private String carry = "";      // 아직 디코딩하지 않은 base64 글자 (4글자 미만)
+        private int receivedChunks;
+        private int totalChunks;
+        private String owner;           // 재개 가능한 업로드만 사용
+        private long chunkSize;         // 재개 가능한 업로드만 사용
+        private BitSet received;        // 받은 조각 (재개 가능한 업로드만 사용)
+        private long bytes;             // 임시 파일에 기록한 바이트 수
+        private long reserved;          // inFlightBytes에 예약한 바이트 수
+        private long lastActivity = System.currentTimeMillis();
+        private boolean closed;         // 완료 또는 만료됨
+        private Path completedFile;     // 완료 후 옮겨진 영상 파일 (완료된 업로드만)
+
+        private UploadSession(Path tempFile) {
+            this.tempFile = tempFile;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.et.server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArduinoGatewayTest {
+
+    private FakeRestTemplate restTemplate;
+    private ArduinoGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = new FakeRestTemplate();
+        gateway = newGateway(8);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsWithoutCalling() {
+        restTemplate.respond(() -> {
+            throw new ResourceAccessException("connection refused");
+        });
+
+        assertThrows(ResourceAccessException.class, () -> gateway.post("/sendIR", "ir"));
+        assertEquals("CLOSED", gateway.status().get("state"));
+
+        restTemplate.respond(() -> {
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+        });
+        assertThrows(HttpServerErrorException.class, () -> gateway.post("/sendIR", "ir"));
+        assertEquals("OPEN", gateway.status().get("state"));
+
+        assertThrows(ArduinoUnavailableException.class, () -> gateway.post("/sendIR", "ir"));
+        assertEquals(2, restTemplate.calls.get());
+    }
+
+    @Test
+    void successAndClientErrorsResetTheFailureCount() {
+        restTemplate.respond(() -> {
+            throw new ResourceAccessException("timeout");
+        });
+        assertThrows(ResourceAccessException.class, () -> gateway.post("/sendIR", "ir"));
+
+        // 4xx는 아두이노가 응답한 것이므로 장애가 아님
+        restTemplate.respond(() -> {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+        });
+        assertThrows(HttpClientErrorException.class, () -> gateway.post("/sendIR", "ir"));
+        assertEquals(0, gateway.status().get("consecutiveFailures"));
+
+        restTemplate.respond(() -> {
+            throw new ResourceAccessException("timeout");
+        });
+        assertThrows(ResourceAccessException.class, () -> gateway.post("/sendIR", "ir"));
+        assertEquals("CLOSED", gateway.status().get("state"));
+    }
+
+    @Test
+    void halfOpenAllowsASingleProbeThatClosesOnSuccess() throws Exception {
+        open();
+        ReflectionTestUtils.setField(gateway, "openedAt", 0L);     // OPEN 유지 시간이 지남
+        assertEquals("HALF_OPEN", gateway.status().get("state"));
+
+        CountDownLatch probeStarted = new CountDownLatch(1);
+        CountDownLatch releaseProbe = new CountDownLatch(1);
+        restTemplate.respond(() -> {
+            probeStarted.countDown();
+            await(releaseProbe);
+            return ResponseEntity.ok("ok");
+        });
+        Thread probe = new Thread(() -> gateway.post("/sendIR", "ir"));
+        probe.start();
+        assertTrue(probeStarted.await(5, TimeUnit.SECONDS));
+
+        // 시험 호출이 끝나기 전의 호출은 차단
+        assertThrows(ArduinoUnavailableException.class, () -> gateway.post("/sendIR", "ir"));
+
+        releaseProbe.countDown();
+        probe.join(5000);
+        assertEquals("CLOSED", gateway.status().get("state"));
+        assertEquals("ok", gateway.post("/sendIR", "ir").getBody());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        open();
+        ReflectionTestUtils.setField(gateway, "openedAt", 0L);
+
+        assertThrows(ResourceAccessException.class, () -> gateway.post("/sendIR", "ir"));
+
+        assertEquals("OPEN", gateway.status().get("state"));
+        assertThrows(ArduinoUnavailableException.class, () -> gateway.post("/sendIR", "ir"));
+    }
+
+    @Test
+    void concurrentCallsOverTheLimitAreRejected() throws Exception {
+        gateway = newGateway(1);
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+        restTemplate.respond(() -> {
+            callStarted.countDown();
+            await(releaseCall);
+            return ResponseEntity.ok("ok");
+        });
+        Thread call = new Thread(() -> gateway.post("/sendIR", "ir"));
+        call.start();
+        assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ArduinoUnavailableException.class, () -> gateway.post("/sendIR", "ir"));
+        assertEquals(1, gateway.status().get("activeCalls"));
+
+        releaseCall.countDown();
+        call.join(5000);
+        assertEquals(0, gateway.status().get("activeCalls"));
+        assertEquals("CLOSED", gateway.status().get("state"));
+    }
+
+    private ArduinoGateway newGateway(int maxConcurrentCalls) {
+        ArduinoGateway created = new ArduinoGateway(restTemplate, maxConcurrentCalls);
+        ReflectionTestUtils.setField(created, "ARDUINO_URL", "http://arduino");
+        ReflectionTestUtils.setField(created, "failureThreshold", 2);
+        ReflectionTestUtils.setField(created, "openDurationMs", 60000L);
+        return created;
+    }
+
+    // 연속 실패로 서킷 브레이커를 OPEN으로 만든 뒤 실패 응답을 유지
+    private void open() {
+        restTemplate.respond(() -> {
+            throw new ResourceAccessException("connection refused");
+        });
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ResourceAccessException.class, () -> gateway.post("/sendIR", "ir"));
+        }
+        assertEquals("OPEN", gateway.status().get("state"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 응답을 정할 수 있는 RestTemplate (호출 횟수 기록)
+    private static class FakeRestTemplate extends RestTemplate {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Supplier<ResponseEntity<String>> response = () -> ResponseEntity.ok("ok");
+
+        void respond(Supplier<ResponseEntity<String>> response) {
+            this.response = response;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ResponseEntity<T> postForEntity(String url, Object request, Class<T> responseType, Object... uriVariables) {
+            calls.incrementAndGet();
+            return (ResponseEntity<T>) response.get();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.et.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EyeTrackingSessionTest {
+
+    private final EyeTrackingSession session = new EyeTrackingSession("s1", 1L, 1L, "member");
+
+    @Test
+    void repeatedGestureInsideTheWindowIsDropped() {
+        assertTrue(session.acceptGesture(7L, "Blink", 1000, 500));
+        assertFalse(session.acceptGesture(7L, "Blink", 1499, 500));
+        // 무시된 제스처는 창을 늘리지 않음
+        assertTrue(session.acceptGesture(7L, "Blink", 1500, 500));
+        assertFalse(session.acceptGesture(7L, "Blink", 1999, 500));
+    }
+
+    @Test
+    void windowIsPerDeviceAndGesture() {
+        assertTrue(session.acceptGesture(7L, "Blink", 1000, 500));
+
+        assertTrue(session.acceptGesture(7L, "Left", 1100, 500));
+        assertTrue(session.acceptGesture(8L, "Blink", 1100, 500));
+        assertFalse(session.acceptGesture(7L, "Left", 1200, 500));
+    }
+
+    @Test
+    void sessionsDoNotShareDebounceState() {
+        EyeTrackingSession other = new EyeTrackingSession("s2", 2L, 2L, "other");
+
+        assertTrue(session.acceptGesture(7L, "Blink", 1000, 500));
+        assertTrue(other.acceptGesture(7L, "Blink", 1000, 500));
+    }
+
+    @Test
+    void windowComesFromPerGestureSettings() {
+        GestureDebounceProperties properties = new GestureDebounceProperties();
+        properties.setDefaultWindowMs(500);
+        properties.setWindowMs(Map.of("Blink", 800L));
+
+        assertEquals(800, properties.windowFor("Blink"));
+        assertEquals(500, properties.windowFor("Left"));
+
+        long blinkWindow = properties.windowFor("Blink");
+        assertTrue(session.acceptGesture(7L, "Blink", 1000, blinkWindow));
+        assertFalse(session.acceptGesture(7L, "Blink", 1600, blinkWindow));
+        assertTrue(session.acceptGesture(7L, "Blink", 1800, blinkWindow));
+
+        long leftWindow = properties.windowFor("Left");
+        assertTrue(session.acceptGesture(7L, "Left", 1000, leftWindow));
+        assertTrue(session.acceptGesture(7L, "Left", 1500, leftWindow));
+    }
+}
@@ -0,0 +1,61 @@
+package com.et.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IrCodecTest {
+
+    private static final byte TEXT = 0;
+    private static final byte TIMINGS = 1;
+    private static final byte HEX = 2;
+
+    @Test
+    void timingsRoundTrip() {
+        String ir = "9000,-4500,560,-1690,560,-560";
+        byte[] encoded = IrCodec.encode(ir);
+
+        assertEquals(TIMINGS, encoded[0]);
+        assertEquals(ir, IrCodec.decode(encoded));
+    }
+
+    @Test
+    void timingsWithLargeAndNegativeDeltasRoundTrip() {
+        String ir = "0,-1,1,-64,64,-8192,8192,123456789012345678,-123456789012345678,999999999999999999,-999999999999999999";
+        byte[] encoded = IrCodec.encode(ir);
+
+        assertEquals(TIMINGS, encoded[0]);
+        assertEquals(ir, IrCodec.decode(encoded));
+    }
+
+    @Test
+    void timingsThatDoNotDecodeToSameTextAreStoredAsText() {
+        // 앞자리 0, -0은 정수로 바꾸면 원래 문자열로 돌아오지 않음
+        for (String ir : new String[]{"0560,-560", "-0,560"}) {
+            byte[] encoded = IrCodec.encode(ir);
+
+            assertEquals(TEXT, encoded[0]);
+            assertEquals(ir, IrCodec.decode(encoded));
+        }
+    }
+
+    @Test
+    void upperCaseHexRoundTrip() {
+        String ir = "0x20DF10EF";
+        byte[] encoded = IrCodec.encode(ir);
+
+        assertEquals(HEX, encoded[0]);
+        assertEquals(5, encoded.length);
+        assertEquals(ir, IrCodec.decode(encoded));
+    }
+
+    @Test
+    void otherValuesAreStoredAsText() {
+        for (String ir : new String[]{"0x20df10ef", "NEC:0x20DF10EF", "전원", ""}) {
+            byte[] encoded = IrCodec.encode(ir);
+
+            assertEquals(TEXT, encoded[0]);
+            assertEquals(ir, IrCodec.decode(encoded));
+        }
+    }
+}
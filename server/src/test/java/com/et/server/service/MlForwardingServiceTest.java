@@ -0,0 +1,170 @@
+package com.et.server.service;
+
+import com.et.server.service.VideoUploadService.ChunkResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MlForwardingServiceTest {
+
+    private static final String OWNER = "addMember:1";
+
+    @TempDir
+    Path uploadDir;
+
+    private VideoUploadService videoUploadService;
+    private MlForwardingService service;
+
+    @BeforeEach
+    void setUp() {
+        videoUploadService = new VideoUploadService();
+        ReflectionTestUtils.setField(videoUploadService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(videoUploadService, "sessionTtlMs", 600000L);
+        ReflectionTestUtils.setField(videoUploadService, "maxInFlightBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(videoUploadService, "maxChunkBytes", 1024L);
+        ReflectionTestUtils.setField(videoUploadService, "maxVideoBytes", 64L * 1024);
+        ReflectionTestUtils.setField(videoUploadService, "completedRetentionMs", 600000L);
+
+        service = new MlForwardingService(videoUploadService, 2);
+        ReflectionTestUtils.setField(service, "queueCapacity", 16);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBackoffMs", 1L);
+        ReflectionTestUtils.setField(service, "idleTimeoutMs", 600000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void forwardedChunksConcatenateToValidBase64() throws Exception {
+        byte[] video = video(23);
+        int chunkSize = 5;      // 3의 배수가 아닌 조각 크기
+        int totalChunks = (video.length + chunkSize - 1) / chunkSize;
+        String uploadId = videoUploadService.begin(OWNER, totalChunks, chunkSize);
+        List<String> forwarded = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(totalChunks);
+
+        for (int i = totalChunks - 1; i >= 0; i--) {
+            int from = i * chunkSize;
+            byte[] chunk = Arrays.copyOfRange(video, from, Math.min(from + chunkSize, video.length));
+            ChunkResult result = videoUploadService.writeChunk(uploadId, OWNER, i,
+                    new ByteArrayInputStream(chunk), chunk.length);
+            service.submit(uploadId, i, totalChunks, result.stored(), (index, videoChunk) -> {
+                forwarded.add(videoChunk);
+                done.countDown();
+                return "ok";
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < totalChunks - 1; i++) {
+            assertFalse(forwarded.get(i).contains("="), "중간 조각에는 패딩이 없어야 함");
+        }
+        assertArrayEquals(video, Base64.getDecoder().decode(String.join("", forwarded)));
+    }
+
+    @Test
+    void chunksAreSentInIndexOrderAndRetried() throws Exception {
+        String uploadId = videoUploadService.begin(OWNER, 3, 4);
+        List<Integer> sent = new CopyOnWriteArrayList<>();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(3);
+        MlForwardingService.ChunkSender sender = (index, videoChunk) -> {
+            // 1번 조각은 첫 시도에서 실패
+            if (index == 1 && attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("ML 서버 오류");
+            }
+            sent.add(index);
+            done.countDown();
+            return "ok";
+        };
+
+        submit(uploadId, 2, "IJ", sender);
+        submit(uploadId, 1, "EFGH", sender);
+        submit(uploadId, 0, "ABCD", sender);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 1, 2), sent);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void failedQueueResumesFromTheFailedChunk() throws Exception {
+        ReflectionTestUtils.setField(service, "maxAttempts", 2);
+        String uploadId = videoUploadService.begin(OWNER, 3, 4);
+        List<Integer> sent = new CopyOnWriteArrayList<>();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        CountDownLatch failed = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(3);
+        MlForwardingService.ChunkSender sender = (index, videoChunk) -> {
+            if (index == 1 && failing.get()) {
+                failed.countDown();
+                throw new IllegalStateException("ML 서버 오류");
+            }
+            sent.add(index);
+            done.countDown();
+            return "ok";
+        };
+
+        submit(uploadId, 0, "ABCD", sender);
+        submit(uploadId, 1, "EFGH", sender);
+        submit(uploadId, 2, "IJ", sender);
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0), sent);
+
+        // 재시도 후에도 실패한 대기열은 클라이언트가 조각을 다시 보내면(checkCapacity) 실패한 조각부터 재개
+        failing.set(false);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!done.await(10, TimeUnit.MILLISECONDS) && System.currentTimeMillis() < deadline) {
+            service.checkCapacity(uploadId, 1);
+        }
+        assertEquals(List.of(0, 1, 2), sent);
+    }
+
+    @Test
+    void encodeCarriesLeftoverBytesUntilTheLastChunk() {
+        byte[] video = video(10);
+        MlForwardingService.EncodedChunk first = MlForwardingService.encode(new byte[0], Arrays.copyOfRange(video, 0, 4), false);
+        MlForwardingService.EncodedChunk second = MlForwardingService.encode(first.carry(), Arrays.copyOfRange(video, 4, 5), false);
+        MlForwardingService.EncodedChunk last = MlForwardingService.encode(second.carry(), Arrays.copyOfRange(video, 5, 10), true);
+
+        assertEquals(1, first.carry().length);
+        assertEquals("", second.base64());
+        assertEquals(2, second.carry().length);
+        assertEquals(0, last.carry().length);
+        assertArrayEquals(video, Base64.getDecoder().decode(first.base64() + second.base64() + last.base64()));
+    }
+
+    private void submit(String uploadId, int chunkIndex, String data, MlForwardingService.ChunkSender sender) throws IOException {
+        byte[] bytes = data.getBytes(StandardCharsets.US_ASCII);
+        ChunkResult result = videoUploadService.writeChunk(uploadId, OWNER, chunkIndex, new ByteArrayInputStream(bytes), bytes.length);
+        service.submit(uploadId, chunkIndex, 3, result.stored(), sender);
+    }
+
+    private static byte[] video(int length) {
+        byte[] video = new byte[length];
+        for (int i = 0; i < length; i++) {
+            video[i] = (byte) (i * 41 + 7);
+        }
+        return video;
+    }
+}
@@ -0,0 +1,238 @@
+package com.et.server.service;
+
+import com.et.server.service.VideoUploadService.ChunkResult;
+import com.et.server.service.VideoUploadService.UploadStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VideoUploadServiceTest {
+
+    private static final String OWNER = "addMember:1";
+
+    @TempDir
+    Path uploadDir;
+
+    private VideoUploadService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new VideoUploadService();
+        ReflectionTestUtils.setField(service, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(service, "sessionTtlMs", 600000L);
+        ReflectionTestUtils.setField(service, "maxInFlightBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(service, "maxChunkBytes", 1024L);
+        ReflectionTestUtils.setField(service, "maxVideoBytes", 64L * 1024);
+        ReflectionTestUtils.setField(service, "completedRetentionMs", 600000L);
+    }
+
+    @Test
+    void writeChunkAcceptsChunksOutOfOrder() throws IOException {
+        String uploadId = service.begin(OWNER, 3, 4);
+
+        assertFalse(write(uploadId, 2, "IJ").isComplete());
+        assertFalse(write(uploadId, 0, "ABCD").isComplete());
+        ChunkResult last = write(uploadId, 1, "EFGH");
+
+        assertTrue(last.isComplete());
+        assertEquals("ABCDEFGHIJ", completeAndRead(uploadId));
+    }
+
+    @Test
+    void writeChunkIgnoresDuplicates() throws IOException {
+        String uploadId = service.begin(OWNER, 2, 4);
+
+        write(uploadId, 0, "ABCD");
+        ChunkResult duplicate = write(uploadId, 0, "WXYZ");
+
+        assertTrue(duplicate.duplicate());
+        assertFalse(duplicate.isComplete());
+        assertEquals(1, duplicate.receivedChunks());
+        assertTrue(write(uploadId, 1, "EF").isComplete());
+        assertEquals("ABCDEF", completeAndRead(uploadId));
+    }
+
+    @Test
+    void onlyTheLastChunkMayBeShort() throws IOException {
+        String uploadId = service.begin(OWNER, 2, 4);
+
+        assertThrows(IllegalStateException.class, () -> write(uploadId, 0, "ABC"));
+        assertThrows(IllegalStateException.class, () -> write(uploadId, 1, ""));
+
+        write(uploadId, 1, "E");
+        write(uploadId, 0, "ABCD");
+        assertEquals("ABCDE", completeAndRead(uploadId));
+    }
+
+    @Test
+    void writeChunkRejectsOversizedChunks() throws IOException {
+        String uploadId = service.begin(OWNER, 2, 4);
+
+        // Content-Length가 chunkSize보다 크면 읽기 전에 거부
+        assertThrows(IllegalStateException.class, () -> service.writeChunk(uploadId, OWNER, 0, stream("ABCDE"), 5));
+        // 길이를 모르는 본문도 chunkSize를 넘으면 거부
+        assertThrows(IllegalStateException.class, () -> service.writeChunk(uploadId, OWNER, 0, stream("ABCDE"), -1));
+        assertThrows(IllegalStateException.class, () -> service.writeChunk(uploadId, OWNER, 1, stream("EFGHI"), -1));
+
+        write(uploadId, 1, "EF");
+        write(uploadId, 0, "ABCD");
+        assertEquals("ABCDEF", completeAndRead(uploadId));
+    }
+
+    @Test
+    void writeChunkRejectsBadIndexAndOwner() throws IOException {
+        String uploadId = service.begin(OWNER, 2, 4);
+
+        assertThrows(IllegalStateException.class, () -> write(uploadId, 2, "ABCD"));
+        assertThrows(IllegalStateException.class, () -> write(uploadId, -1, "ABCD"));
+        assertThrows(IllegalStateException.class,
+                () -> service.writeChunk(uploadId, "addMember:2", 0, stream("ABCD"), 4));
+    }
+
+    @Test
+    void statusListsMissingChunks() throws IOException {
+        String uploadId = service.begin(OWNER, 4, 4);
+        write(uploadId, 1, "EFGH");
+        write(uploadId, 3, "M");
+
+        UploadStatus status = service.status(uploadId);
+
+        assertEquals(2, status.receivedChunks());
+        assertEquals(List.of(0, 2), status.missingChunks());
+        assertFalse(status.completed());
+    }
+
+    @Test
+    void chunksResentAfterCompletionAreDuplicates() throws IOException {
+        String uploadId = service.begin(OWNER, 2, 4);
+        write(uploadId, 0, "ABCD");
+        write(uploadId, 1, "EF");
+        completeAndRead(uploadId);
+
+        ChunkResult resent = write(uploadId, 1, "EF");
+
+        assertTrue(resent.duplicate());
+        assertFalse(resent.isComplete());
+        assertTrue(service.status(uploadId).completed());
+    }
+
+    @Test
+    void beginRejectsUploadsOverTheSizeLimit() {
+        assertThrows(IllegalStateException.class, () -> service.begin(OWNER, 65, 1024));
+        assertThrows(IllegalStateException.class, () -> service.begin(OWNER, Integer.MAX_VALUE, Long.MAX_VALUE));
+        assertThrows(IllegalStateException.class, () -> service.begin(OWNER, 0, 4));
+        assertNotNull(service.begin(OWNER, 64, 1024));
+    }
+
+    @Test
+    void beginReservesTheDeclaredSizeUntilCompletion() throws IOException {
+        ReflectionTestUtils.setField(service, "maxInFlightBytes", 12L);
+        String uploadId = service.begin(OWNER, 2, 4);
+
+        // 아직 아무것도 기록하지 않았어도 선언한 8바이트는 예약되어 있음
+        assertThrows(UploadLimitExceededException.class, () -> service.begin("addMember:2", 2, 4));
+        assertThrows(UploadLimitExceededException.class, () -> service.appendChunk("addMember:3", 0, 1, stream("ABCDE"), 5));
+
+        write(uploadId, 0, "ABCD");
+        write(uploadId, 1, "EF");
+        completeAndRead(uploadId);
+        assertNotNull(service.begin("addMember:2", 3, 4));
+    }
+
+    @Test
+    void legacyChunksCountAgainstTheInFlightLimit() throws IOException {
+        ReflectionTestUtils.setField(service, "maxInFlightBytes", 6L);
+        service.appendChunk(OWNER, 0, 3, stream("ABCD"), 4);
+
+        assertThrows(UploadLimitExceededException.class, () -> service.appendChunk(OWNER, 1, 3, stream("EFG"), 3));
+        // 길이를 모르는 본문은 남은 용량만큼만 받을 수 있음 (최대 조각 크기 예약 실패)
+        assertThrows(UploadLimitExceededException.class, () -> service.appendChunk(OWNER, 1, 3, stream("EF"), -1));
+        service.appendChunk(OWNER, 1, 3, stream("EF"), 2);
+
+        // 0번 조각을 다시 보내면 예약이 초기화됨
+        service.appendChunk(OWNER, 0, 1, stream("XYZ"), 3);
+        assertEquals("XYZ", completeAndRead(OWNER));
+        assertNotNull(service.begin(OWNER, 1, 6));
+    }
+
+    @Test
+    void base64ChunksSplitAtAnyLengthDecodeToOriginalBytes() throws IOException {
+        byte[] video = new byte[100];
+        for (int i = 0; i < video.length; i++) {
+            video[i] = (byte) (i * 37);
+        }
+        String base64 = Base64.getEncoder().encodeToString(video);
+        // 4의 배수가 아닌 위치에서 나눈 조각 (남는 글자는 다음 조각과 합쳐서 디코딩)
+        int[] cuts = {0, 5, 6, 13, 50, 51, 97, base64.length()};
+        int totalChunks = cuts.length - 1;
+
+        for (int i = 0; i < totalChunks; i++) {
+            ChunkResult result = service.appendBase64Chunk(OWNER, i, totalChunks, base64.substring(cuts[i], cuts[i + 1]));
+            assertEquals(i == totalChunks - 1, result.isComplete());
+        }
+
+        Path dest = uploadDir.resolve("video").resolve("base64.mp4");
+        service.complete(OWNER, dest);
+        assertArrayEquals(video, Files.readAllBytes(dest));
+    }
+
+    @Test
+    void leftoverBase64CharactersFailCompletion() throws IOException {
+        service.appendBase64Chunk(OWNER, 0, 2, "QUJD");
+        assertTrue(service.appendBase64Chunk(OWNER, 1, 2, "RA").isComplete());
+
+        assertThrows(IllegalStateException.class, () -> completeAndRead(OWNER));
+    }
+
+    @Test
+    void resentBase64ChunkIsIgnored() throws IOException {
+        service.appendBase64Chunk(OWNER, 0, 3, "QUJ");
+        service.appendBase64Chunk(OWNER, 1, 3, "DRE");
+
+        assertTrue(service.appendBase64Chunk(OWNER, 1, 3, "DRE").duplicate());
+        assertThrows(IllegalStateException.class, () -> service.appendBase64Chunk(OWNER, 3, 3, "VG"));
+        assertTrue(service.appendBase64Chunk(OWNER, 2, 3, "VG").isComplete());
+        assertEquals("ABCDEF", completeAndRead(OWNER));
+    }
+
+    @Test
+    void base64ChunkZeroRestartsUpload() throws IOException {
+        service.appendBase64Chunk(OWNER, 0, 2, "QUJ");
+        service.appendBase64Chunk(OWNER, 0, 2, "WFla");
+
+        assertTrue(service.appendBase64Chunk(OWNER, 1, 2, "QUJD").isComplete());
+        assertEquals("XYZABC", completeAndRead(OWNER));
+    }
+
+    @Test
+    void binaryChunkCannotFollowPendingBase64Characters() throws IOException {
+        service.appendBase64Chunk(OWNER, 0, 2, "QUJ");
+
+        assertThrows(IllegalStateException.class, () -> service.appendChunk(OWNER, 1, 2, stream("D"), 1));
+    }
+
+    private ChunkResult write(String uploadId, int chunkIndex, String data) throws IOException {
+        return service.writeChunk(uploadId, OWNER, chunkIndex, stream(data), data.length());
+    }
+
+    private String completeAndRead(String uploadKey) throws IOException {
+        Path dest = uploadDir.resolve("video").resolve(uploadKey.replace(':', '_') + ".mp4");
+        service.complete(uploadKey, dest);
+        return Files.readString(dest, StandardCharsets.US_ASCII);
+    }
+
+    private static ByteArrayInputStream stream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.US_ASCII));
+    }
+}